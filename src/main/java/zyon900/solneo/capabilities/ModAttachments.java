@@ -0,0 +1,25 @@
+package zyon900.solneo.capabilities;
+
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
+import zyon900.solneo.data.ValheimFoodData;
+import zyon900.solneo.solneo;
+
+import java.util.function.Supplier;
+
+public class ModAttachments {
+
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES =
+            DeferredRegister.create(NeoForgeRegistries.ATTACHMENT_TYPES, solneo.MOD_ID);
+
+    // Per-player food storage, saved with the player through ValheimFoodProvider's NBT methods.
+    // Not copied on death: a respawned player starts with an empty stomach.
+    public static final Supplier<AttachmentType<ValheimFoodProvider>> VALHEIM_FOOD = ATTACHMENT_TYPES.register(
+            "valheim_food", () -> AttachmentType.serializable(() -> new ValheimFoodProvider()).build());
+
+    public static ValheimFoodData getFoodData(Player player) {
+        return player.getData(VALHEIM_FOOD).getCapability(player, null);
+    }
+}
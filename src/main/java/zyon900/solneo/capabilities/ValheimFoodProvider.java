@@ -11,8 +11,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability; // Import for return type annotation
 
-import java.util.stream.Collectors; // Ensure Collectors is imported
-
 // Implement ICapabilityProvider<Player, Void, ValheimFoodData>
 // Implement INBTSerializable<CompoundTag>
 public class ValheimFoodProvider implements ICapabilityProvider<Player, Void, ValheimFoodData>, INBTSerializable<CompoundTag> {
@@ -46,15 +44,9 @@ public class ValheimFoodProvider implements ICapabilityProvider<Player, Void, Va
         // If ValheimFoodData.read is updated later to need the provider:
         // ValheimFoodData loadedData = ValheimFoodData.read(provider, nbt);
 
-        // --- Perform DEEP COPY when updating the existing instance ---
-        // List copy (assumes EatenFoodItem copy constructor is sufficient)
-        this.foodData.ItemEntries = loadedData.ItemEntries.stream()
-                .map(ValheimFoodData.EatenFoodItem::new)
-                .collect(Collectors.toCollection(java.util.ArrayList::new));
-        // Drink slot copy
-        this.foodData.DrinkSlot = (loadedData.DrinkSlot == null) ? null : new ValheimFoodData.EatenFoodItem(loadedData.DrinkSlot);
-        // Simple field copy
-        this.foodData.MaxItemSlots = loadedData.MaxItemSlots;
+        // --- Copy into the existing instance ---
+        // Slot arrays are copied with System.arraycopy, no per-slot objects
+        this.foodData.copyFrom(loadedData);
         // Re-apply config
         this.foodData.loadConfigValues();
     }
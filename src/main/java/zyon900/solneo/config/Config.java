@@ -1,23 +1,24 @@
 package zyon900.solneo.config;
 
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.core.component.DataComponents;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.Mth;
 import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.item.Item;
-import net.minecraft.world.item.Items;
-import net.minecraft.world.item.UseAnim;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.fml.loading.FMLPaths;
 import net.neoforged.neoforge.common.ModConfigSpec;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.server.ServerLifecycleHooks;
 import org.apache.commons.lang3.tuple.Pair;
+import zyon900.solneo.network.ModNetwork;
 import zyon900.solneo.solneo; // Import main mod class for logger
 
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class Config {
 
@@ -37,58 +38,142 @@ public class Config {
         CLIENT = clientPair.getLeft();
     }
 
-    // --- Parsed Food Config Data ---
-    // This map will hold the parsed data from the foodProperties list config
-    private static Map<ResourceLocation, FoodConfig> parsedFoodConfigs = Collections.emptyMap();
+    // --- Published Config Snapshot ---
+    // Rebuilt on config load/reload and swapped in one write; readers never see a half-updated state
+    private static volatile ConfigSnapshot snapshot = ConfigSnapshot.defaults(COMMON);
+    // Food entries can only be resolved once the item registry is frozen (set in loadAndParseFoodConfigs)
+    private static boolean foodTableReady = false;
+    // Tag rules can only be resolved once item tags are bound (set on the first TagsUpdatedEvent)
+    private static boolean tagsBound = false;
+
+    // --- Food Table Layers (guarded by Config.class) ---
+    // Table built from the foodProperties list, before datapack and tag rules are applied
+    private static FoodTable baseFoods = FoodTable.EMPTY;
+    // Rules from data/<ns>/solneo/foods/*.json, replaced on every datapack reload
+    private static FoodRules datapackFoods = FoodRules.EMPTY;
+    // Client only: table received from a remote server, replaces everything resolved locally
+    private static FoodTable serverFoods = null;
+    // List and default timer baseFoods was built from, so a reload that only changed other values skips the rebuild
+    private static List<? extends String> baseFoodsList = List.of();
+    private static int baseFoodsTimer = -1;
+    // The config file changed and baseFoods hasn't been rebuilt on a game thread yet
+    private static boolean baseFoodsStale = false;
+
+    public static ConfigSnapshot snapshot() {
+        return snapshot;
+    }
 
     // Call this method during FMLCommonSetupEvent AFTER config is loaded
-    public static void loadAndParseFoodConfigs() {
-        parsedFoodConfigs = parseFoodPropertiesList(COMMON.foodProperties.get());
-        solneo.LOGGER.info("Parsed {} food config entries.", parsedFoodConfigs.size());
+    public static synchronized void loadAndParseFoodConfigs() {
+        foodTableReady = true;
+        publishSnapshot(true);
     }
 
-    // Parses the List<String> from the config into the Map
-    private static Map<ResourceLocation, FoodConfig> parseFoodPropertiesList(List<? extends String> list) {
-        Map<ResourceLocation, FoodConfig> map = new HashMap<>();
-        if (list == null) return map; // Handle null case
-
-        for (String entry : list) {
-            try {
-                String[] parts = entry.split("\\|"); // Split by pipe
-                if (parts.length >= 4) { // Need at least ID, duration, hearts, regen
-                    ResourceLocation itemId = ResourceLocation.tryParse(parts[0].trim());
-                    int duration = Integer.parseInt(parts[1].trim());
-                    float hearts = Float.parseFloat(parts[2].trim());
-                    float regen = Float.parseFloat(parts[3].trim());
-
-                    List<MobEffectConfig> effects = new ArrayList<>();
-                    // Optional: Parse extra effects if included (e.g., part 4 onwards)
-                    // Example format: "minecraft:haste|1.0|0" for effect ID, duration multiplier, amplifier
-                    if (parts.length > 4) {
-                        for (int i = 4; i < parts.length; i++) {
-                            String[] effectParts = parts[i].trim().split(":");
-                            if (effectParts.length == 3) {
-                                effects.add(new MobEffectConfig(effectParts[0], Float.parseFloat(effectParts[1]), Integer.parseInt(effectParts[2])));
-                            } else {
-                                solneo.LOGGER.warn("Invalid mob effect format in food config entry part: {}", parts[i]);
-                            }
-                        }
-                    }
+    // Registered on the mod event bus. Reloading fires on the config watcher thread when the file is edited.
+    public static void onConfigLoading(ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == COMMON_SPEC) publishSnapshot(false);
+    }
 
+    // Only the scalar values are published from the watcher thread. Rebuilding the food table reads item tags and
+    // the registry, so it is queued on the server thread, or left for the next TagsUpdatedEvent when none is running.
+    public static void onConfigReloading(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() == COMMON_SPEC) {
+            publishValues();
+            markFoodsStale();
+            MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+            if (server != null) server.execute(() -> refreshStaleFoods(server));
+            solneo.LOGGER.info("Reloaded common config (snapshot version {}).", snapshot.version);
+        }
+    }
 
-                    if (itemId != null) {
-                        map.put(itemId, new FoodConfig(itemId, duration, hearts, regen, effects));
-                    } else {
-                        solneo.LOGGER.warn("Invalid ResourceLocation in food config: {}", parts[0]);
-                    }
-                } else {
-                    solneo.LOGGER.warn("Invalid format in food config entry (expected at least 4 parts): {}", entry);
-                }
-            } catch (Exception e) {
-                solneo.LOGGER.error("Error parsing food config entry: '{}'", entry, e);
-            }
+    // Registered on the game event bus. Fires after every datapack (re)load and when a client receives tags.
+    public static synchronized void onTagsUpdated(TagsUpdatedEvent event) {
+        tagsBound = true;
+        if (baseFoodsStale) {
+            publishSnapshot(false);
+        } else {
+            publishFoods();
+        }
+    }
+
+    // Called on the server thread once a datapack reload has parsed the food definitions
+    static synchronized void setDatapackFoods(FoodRules rules) {
+        datapackFoods = rules;
+        publishFoods();
+    }
+
+    // Called on the client thread with the server's table, or null when leaving the server
+    public static synchronized void setServerFoods(FoodTable table) {
+        serverFoods = table;
+        publishFoods();
+    }
+
+    private static FoodTable resolveFoods() {
+        if (serverFoods != null) return serverFoods;
+        return tagsBound || datapackFoods.size() > 0 ? baseFoods.resolve(datapackFoods) : baseFoods;
+    }
+
+    // Swaps in a new food table, keeping all other values
+    private static synchronized void publishFoods() {
+        ConfigSnapshot previous = snapshot;
+        FoodTable resolved = resolveFoods();
+        snapshot = previous.withFoods(previous.version + 1, resolved);
+        solneo.LOGGER.debug("Published food table with {} entries (snapshot version {}).", resolved.size(), snapshot.version);
+    }
+
+    // Game thread only: may rebuild baseFoods, which resolves the item registry and tags
+    private static synchronized void publishSnapshot(boolean forceReparse) {
+        List<? extends String> list = List.copyOf(COMMON.foodProperties.get());
+        int defaultTimer = COMMON.defaultTimer.get();
+
+        // Before the registries are frozen there is nothing to parse against; loadAndParseFoodConfigs forces it later
+        if (foodTableReady && (forceReparse || !list.equals(baseFoodsList) || defaultTimer != baseFoodsTimer)) {
+            baseFoods = loadFoodTable(list, defaultTimer);
+            baseFoodsList = list;
+            baseFoodsTimer = defaultTimer;
         }
-        return map;
+        baseFoodsStale = false;
+        snapshot = ConfigSnapshot.capture(snapshot.version + 1, COMMON, resolveFoods());
+    }
+
+    // Any thread: new scalar values with the food table already published
+    private static synchronized void publishValues() {
+        ConfigSnapshot previous = snapshot;
+        snapshot = ConfigSnapshot.capture(previous.version + 1, COMMON, previous.foods);
+    }
+
+    private static synchronized void markFoodsStale() {
+        baseFoodsStale = true;
+    }
+
+    // Queued on the server thread after a reload; a TagsUpdatedEvent may have rebuilt the table in the meantime.
+    // Clients otherwise only get the table on datapack sync, so a rebuilt one is sent to everyone connected.
+    private static void refreshStaleFoods(MinecraftServer server) {
+        synchronized (Config.class) {
+            if (!baseFoodsStale) return;
+            FoodTable previous = baseFoods;
+            publishSnapshot(false);
+            if (baseFoods == previous) return; // Only other values changed
+        }
+        server.getPlayerList().getPlayers().forEach(ModNetwork::sendFoodTable);
+    }
+
+    // Reads the table from the binary cache when nothing it depends on changed, otherwise parses and regenerates it
+    private static FoodTable loadFoodTable(List<? extends String> list, int defaultTimer) {
+        Path cacheFile = FMLPaths.CONFIGDIR.get().resolve(solneo.MOD_ID + "-foods.cache");
+        byte[] key = FoodTableCache.computeKey(list, defaultTimer);
+        FoodTable table = FoodTableCache.read(cacheFile, key);
+        if (table != null) {
+            solneo.LOGGER.info("Loaded {} food configs ({} explicit) from cache.", table.size(), table.explicitCount());
+            return table;
+        }
+
+        FoodRules rules = FoodPropertiesParser.parse(list);
+        table = FoodTable.build(rules, FoodPropertiesParser.parse(Common.DEFAULT_FOOD_PROPERTIES), defaultTimer);
+        solneo.LOGGER.info("Parsed {} food config entries ({} item, {} tag and {} namespace rules).",
+                rules.size(), rules.items().size(), rules.tags().size(), rules.namespaces().size());
+        FoodTableCache.write(cacheFile, key, table);
+        return table;
     }
 
     /**
@@ -96,26 +181,51 @@ public class Config {
      * Returns null if the item is not considered food by this mod's logic
      * (doesn't have food component, isn't cake, isn't a drink)
      * or if no specific config is found.
+     * The food checks are resolved once in {@link FoodTable#build}, so this is a single array read.
      */
     public static FoodConfig getFoodConfig(Item item) {
-        boolean isDrink = item.getDefaultInstance().getUseAnimation() == UseAnim.DRINK;
-
-        // Check if the item has the FOOD data component OR is Cake OR is considered a drink
-        boolean consideredFood = item.components().has(DataComponents.FOOD) || item == Items.CAKE || isDrink;
-
-        if (!consideredFood) {
-            // If it's not food, cake, or a drink, return null
-            return null;
-        }
+        return snapshot.foods.get(item); // Populated by loadAndParseFoodConfigs
+    }
 
-        ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
-        // Return the parsed config if found, otherwise null
-        return parsedFoodConfigs.get(itemId); // parsedFoodConfigs is populated by loadAndParseFoodConfigs
+    // Same as getFoodConfig(Item) for callers that already hold the raw registry id
+    public static FoodConfig getFoodConfig(int rawItemId) {
+        return snapshot.foods.get(rawItemId);
     }
 
 
     // --- Common Config Definition ---
     public static class Common {
+        // Built-in values for vanilla foods. Below datapack entries and foodProperties, above generated values.
+        public static final List<String> DEFAULT_FOOD_PROPERTIES = List.of(
+                "minecraft:apple|600|4|0.005", // 4 hearts, 0.1 regen/sec
+                "minecraft:bread|1200|5|0.005",
+                "minecraft:cooked_porkchop|1800|8|0.01",
+                "minecraft:cooked_beef|1800|8|0.01",
+                "minecraft:cooked_chicken|1400|6|0.0075",
+                "minecraft:cooked_cod|1200|5|0.005",
+                "minecraft:cooked_salmon|1400|6|0.0075",
+                "minecraft:cooked_mutton|1400|6|0.0075",
+                "minecraft:cooked_rabbit|1200|5|0.005",
+                "minecraft:baked_potato|1200|5|0.005",
+                "minecraft:carrot|800|3|0.0025",
+                "minecraft:beetroot|400|1|0.001",
+                "minecraft:beetroot_soup|1400|6|0.0075",
+                "minecraft:pumpkin_pie|1800|8|0.01",
+                "minecraft:mushroom_stew|1400|6|0.0075",
+                "minecraft:rabbit_stew|2000|10|0.0125",
+                "minecraft:suspicious_stew|800|6|0.0075", // Effects handled by vanilla
+                "minecraft:cake|1|14|0.0175", // Duration handled by block logic / per slice
+                "minecraft:cookie|400|2|0.001",
+                "minecraft:melon_slice|600|2|0.001",
+                "minecraft:dried_kelp|200|1|0.0",
+                "minecraft:honey_bottle|600|6|0.001", // Drink
+                "minecraft:milk_bucket|1|0|0.0", // Drink, clears effects
+                "minecraft:potion|600|0|0.0", // Drink base for potions
+                "minecraft:golden_carrot|1600|6|0.0075",
+                "minecraft:golden_apple|2400|4|0.05|minecraft:regeneration:1.0:1|minecraft:absorption:1.0:0", // Higher regen + effects
+                "minecraft:enchanted_golden_apple|3600|4|0.1|minecraft:regeneration:1.0:4|minecraft:absorption:1.0:3|minecraft:resistance:1.0:0|minecraft:fire_resistance:1.0:0" // Even higher regen + effects
+        );
+
         public final ModConfigSpec.IntValue defaultTimer;
         public final ModConfigSpec.IntValue regenDelay;
         public final ModConfigSpec.IntValue respawnGracePeriod;
@@ -126,13 +236,25 @@ public class Config {
         public final ModConfigSpec.DoubleValue eatAgainPercentage;
         public final ModConfigSpec.DoubleValue drinkSlotFoodEffectivenessBonus;
         public final ModConfigSpec.BooleanValue passTicksDuringNight;
+        public final ModConfigSpec.DoubleValue drainSprinting;
+        public final ModConfigSpec.DoubleValue drainSwimming;
+        public final ModConfigSpec.DoubleValue drainFighting;
+        public final ModConfigSpec.DoubleValue drainIdle;
+        public final ModConfigSpec.DoubleValue healQuantum;
+        public final ModConfigSpec.IntValue foodTickInterval;
+        public final ModConfigSpec.IntValue foodResyncInterval;
+        public final ModConfigSpec.BooleanValue shareFoodWithTeam;
+        public final ModConfigSpec.DoubleValue syncMsptBudget;
+        public final ModConfigSpec.BooleanValue parallelFoodTick;
+        public final ModConfigSpec.IntValue parallelFoodTickThreshold;
         public final ModConfigSpec.ConfigValue<List<? extends String>> foodProperties;
 
         Common(ModConfigSpec.Builder builder) {
             builder.comment("Common configuration settings").push("common");
 
             defaultTimer = builder
-                    .comment("Base time in seconds food should last. Actual duration calculated using nutrition/saturation.")
+                    .comment("Base time in seconds food should last. Actual duration calculated using nutrition/saturation.",
+                            "Only used for food items without an entry in foodProperties.")
                     .defineInRange("defaultTimer", 180, 10, 7200);
 
             regenDelay = builder
@@ -171,45 +293,69 @@ public class Config {
                     .comment("Simulate food ticking down when players sleep through the night.")
                     .define("passTicksDuringNight", true);
 
+            builder.comment("How fast food runs out during an activity, relative to normal (2.0 = twice as fast).",
+                    "If several apply, fighting wins over swimming, swimming over sprinting. Idle means no input for 10 seconds.")
+                    .push("drain");
+            drainSprinting = builder.defineInRange("sprinting", 1.0, 0.1, 10.0);
+            drainSwimming = builder.defineInRange("swimming", 1.0, 0.1, 10.0);
+            drainFighting = builder
+                    .comment("Applies for 5 seconds after dealing or taking damage.")
+                    .defineInRange("fighting", 1.0, 0.1, 10.0);
+            drainIdle = builder.defineInRange("idle", 1.0, 0.1, 10.0);
+            builder.pop();
+
+            healQuantum = builder
+                    .comment("Food regeneration is collected and applied in heals of at least this many health points (1.0 = half a heart).",
+                            "Fewer, larger heals are cheaper with many mods listening to heal events; the total healed stays the same.",
+                            "Set to 0 to heal every tick.")
+                    .defineInRange("healQuantum", 1.0, 0.0, 20.0);
+
+            foodTickInterval = builder
+                    .comment("Update each player's food health, speed and regeneration every this many ticks instead of every tick.",
+                            "Players are spread evenly over the interval and the elapsed ticks are caught up exactly, so totals don't change;",
+                            "only the moment an effect shows up can lag by up to the interval. Food expiry is always on time.")
+                    .defineInRange("foodTickInterval", 1, 1, 20);
+
+            foodResyncInterval = builder
+                    .comment("Food state is sent to a player when it changes (eating, expiry, death, night skip) and the client counts down itself.",
+                            "Additionally resend it to every player with active food once per this many ticks, to correct any drift. 0 disables.")
+                    .defineInRange("foodResyncInterval", 1200, 0, 72000);
+
+            shareFoodWithTeam = builder
+                    .comment("Also send a player's food state to scoreboard teammates who can see them.",
+                            "Off by default: food state only goes to its owner.")
+                    .define("shareFoodWithTeam", false);
+
+            syncMsptBudget = builder
+                    .comment("While the server's average tick time is above this many milliseconds, food sync traffic that is only cosmetic",
+                            "(countdown corrections, teammate views, periodic resyncs) is held back. Foods being gained or lost are always sent at once.",
+                            "0 disables the throttling.")
+                    .defineInRange("syncMsptBudget", 40.0, 0.0, 1000.0);
+
+            parallelFoodTick = builder
+                    .comment("Compute food totals for players on multiple threads. Only worth it on servers with thousands of players eating.",
+                            "Attribute changes and healing are still applied on the server thread, in the same order as without it.")
+                    .define("parallelFoodTick", false);
+
+            parallelFoodTickThreshold = builder
+                    .comment("Minimum number of active players before parallelFoodTick splits the work; below it the tick stays single-threaded.")
+                    .defineInRange("parallelFoodTickThreshold", 4096, 2, 100000);
+
             foodProperties = builder
                     .comment("Define properties for food items.",
                             "Format: \"item_registry_name|duration_ticks|hearts_restored|health_regen_points_per_tick\"",
                             "Example: \"minecraft:cooked_beef|1800|8.0|0.025\" (0.025 * 20 ticks = 0.5/sec)",
+                            "Instead of an item, an entry can target an item tag (\"#c:foods/cooked_meat|...\") or every item of a mod (\"farmersdelight:*|...\").",
+                            "Precedence: exact item, then tag (last listed wins), then mod wildcard, then values generated from the item's food properties.",
+                            "Entries here override datapack entries (data/<namespace>/solneo/foods/*.json). The mod's built-in values for vanilla foods",
+                            "sit below datapacks, so leave this empty unless you want to pin a food regardless of installed datapacks.",
                             "Optionally add mob effects after regen: |effect_id:duration_mult:amplifier|...",
                             "Example: \"minecraft:golden_apple|2400|4.0|0.05|minecraft:regeneration:1.0:1|minecraft:absorption:1.0:0\""
                     )
                     .defineListAllowEmpty(
                             List.of("foodProperties"),
-                            () -> Arrays.asList( // Provide sensible defaults
-                                    "minecraft:apple|600|4|0.005", // 4 hearts, 0.1 regen/sec
-                                    "minecraft:bread|1200|5|0.005",
-                                    "minecraft:cooked_porkchop|1800|8|0.01",
-                                    "minecraft:cooked_beef|1800|8|0.01",
-                                    "minecraft:cooked_chicken|1400|6|0.0075",
-                                    "minecraft:cooked_cod|1200|5|0.005",
-                                    "minecraft:cooked_salmon|1400|6|0.0075",
-                                    "minecraft:cooked_mutton|1400|6|0.0075",
-                                    "minecraft:cooked_rabbit|1200|5|0.005",
-                                    "minecraft:baked_potato|1200|5|0.005",
-                                    "minecraft:carrot|800|3|0.0025",
-                                    "minecraft:beetroot|400|1|0.001",
-                                    "minecraft:beetroot_soup|1400|6|0.0075",
-                                    "minecraft:pumpkin_pie|1800|8|0.01",
-                                    "minecraft:mushroom_stew|1400|6|0.0075",
-                                    "minecraft:rabbit_stew|2000|10|0.0125",
-                                    "minecraft:suspicious_stew|800|6|0.0075", // Effects handled by vanilla
-                                    "minecraft:cake|1|14|0.0175", // Duration handled by block logic / per slice
-                                    "minecraft:cookie|400|2|0.001",
-                                    "minecraft:melon_slice|600|2|0.001",
-                                    "minecraft:dried_kelp|200|1|0.0",
-                                    "minecraft:honey_bottle|600|6|0.001", // Drink
-                                    "minecraft:milk_bucket|1|0|0.0", // Drink, clears effects
-                                    "minecraft:potion|600|0|0.0", // Drink base for potions
-                                    "minecraft:golden_carrot|1600|6|0.0075",
-                                    "minecraft:golden_apple|2400|4|0.05|minecraft:regeneration:1.0:1|minecraft:absorption:1.0:0", // Higher regen + effects
-                                    "minecraft:enchanted_golden_apple|3600|4|0.1|minecraft:regeneration:1.0:4|minecraft:absorption:1.0:3|minecraft:resistance:1.0:0|minecraft:fire_resistance:1.0:0" // Even higher regen + effects
-                            ),
-                            obj -> obj instanceof String s && s.contains("|") && s.split("\\|").length >= 4 // Basic validation
+                            List::of, // The built-in defaults live in DEFAULT_FOOD_PROPERTIES
+                            obj -> obj instanceof String s && FoodPropertiesParser.countParts(s) >= 4 // Basic validation
                     );
 
             builder.pop();
@@ -239,8 +385,8 @@ public class Config {
         public final float healthRegenPerTick; // Direct regen value per tick
         public final List<MobEffectConfig> extraEffects;
 
-        // Private constructor, use parsing method
-        private FoodConfig(ResourceLocation id, int time, float hearts, float healthRegen, List<MobEffectConfig> effects) {
+        // Package-private, built by FoodPropertiesParser. id is null for tag/wildcard rule templates.
+        FoodConfig(ResourceLocation id, int time, float hearts, float healthRegen, List<MobEffectConfig> effects) {
             this.id = id;
             this.timeTicks = Math.max(1, time); // Ensure time is at least 1 tick
             this.hearts = Math.max(0, hearts); // Ensure hearts is non-negative
@@ -248,6 +394,11 @@ public class Config {
             this.extraEffects = Collections.unmodifiableList(effects != null ? effects : new ArrayList<>());
         }
 
+        // Same values for another item, used when a tag or wildcard rule matches it
+        FoodConfig copyFor(ResourceLocation itemId) {
+            return new FoodConfig(itemId, timeTicks, hearts, healthRegenPerTick, extraEffects);
+        }
+
         public int getTime() { return timeTicks; }
         public float getHearts() { return hearts; }
         public float getHealthRegenPerTick() { return healthRegenPerTick; }
@@ -263,7 +414,7 @@ public class Config {
         public final int amplifier; // Effect amplifier (0 = Level I)
         private MobEffect cachedEffect = null; // Cache looked-up effect
 
-        private MobEffectConfig(String id, float durationMult, int amp) {
+        MobEffectConfig(String id, float durationMult, int amp) {
             this.effectId = id;
             this.durationMultiplier = Mth.clamp(durationMult, 0.0f, 1.0f);
             this.amplifier = Math.max(0, amp);
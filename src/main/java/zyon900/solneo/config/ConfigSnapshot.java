@@ -0,0 +1,112 @@
+package zyon900.solneo.config;
+
+/**
+ * Immutable copy of every Config.Common value plus the resolved food table.
+ * Published through a single volatile reference in {@link Config}, so hot paths read plain final fields.
+ */
+public final class ConfigSnapshot {
+
+    public final int version; // Bumped on every publish, lets callers cache derived values
+    public final int defaultTimer;
+    public final int regenDelay;
+    public final int respawnGracePeriod;
+    public final int startingHealth;
+    public final int maxSlots;
+    public final float regenSpeedModifier;
+    public final float speedBoost;
+    public final float eatAgainPercentage;
+    public final float drinkSlotFoodEffectivenessBonus;
+    public final boolean passTicksDuringNight;
+    public final float drainSprinting;
+    public final float drainSwimming;
+    public final float drainFighting;
+    public final float drainIdle;
+    public final float healQuantum;
+    public final int foodTickInterval;
+    public final int foodResyncInterval;
+    public final boolean shareFoodWithTeam;
+    public final float syncMsptBudget;
+    public final boolean parallelFoodTick;
+    public final int parallelFoodTickThreshold;
+
+    public final FoodTable foods;
+
+    private ConfigSnapshot(int version, Values values, FoodTable foods) {
+        this.version = version;
+        this.defaultTimer = values.defaultTimer;
+        this.regenDelay = values.regenDelay;
+        this.respawnGracePeriod = values.respawnGracePeriod;
+        this.startingHealth = values.startingHealth;
+        this.maxSlots = values.maxSlots;
+        this.regenSpeedModifier = values.regenSpeedModifier;
+        this.speedBoost = values.speedBoost;
+        this.eatAgainPercentage = values.eatAgainPercentage;
+        this.drinkSlotFoodEffectivenessBonus = values.drinkSlotFoodEffectivenessBonus;
+        this.passTicksDuringNight = values.passTicksDuringNight;
+        this.drainSprinting = values.drainSprinting;
+        this.drainSwimming = values.drainSwimming;
+        this.drainFighting = values.drainFighting;
+        this.drainIdle = values.drainIdle;
+        this.healQuantum = values.healQuantum;
+        this.foodTickInterval = values.foodTickInterval;
+        this.foodResyncInterval = values.foodResyncInterval;
+        this.shareFoodWithTeam = values.shareFoodWithTeam;
+        this.syncMsptBudget = values.syncMsptBudget;
+        this.parallelFoodTick = values.parallelFoodTick;
+        this.parallelFoodTickThreshold = values.parallelFoodTickThreshold;
+        this.foods = foods;
+    }
+
+    // Snapshot of the spec defaults, used until the common config file has been loaded
+    static ConfigSnapshot defaults(Config.Common common) {
+        return new ConfigSnapshot(0, Values.defaults(common), FoodTable.EMPTY);
+    }
+
+    // Reads the current (loaded) config values; food data is supplied by the caller
+    static ConfigSnapshot capture(int version, Config.Common common, FoodTable foods) {
+        return new ConfigSnapshot(version, Values.current(common), foods);
+    }
+
+    // Same config values with a different food table (e.g. after tag rules were resolved)
+    ConfigSnapshot withFoods(int newVersion, FoodTable newFoods) {
+        return new ConfigSnapshot(newVersion, new Values(defaultTimer, regenDelay, respawnGracePeriod, startingHealth, maxSlots,
+                regenSpeedModifier, speedBoost, eatAgainPercentage, drinkSlotFoodEffectivenessBonus, passTicksDuringNight,
+                drainSprinting, drainSwimming, drainFighting, drainIdle, healQuantum, foodTickInterval, foodResyncInterval,
+                shareFoodWithTeam, syncMsptBudget, parallelFoodTick, parallelFoodTickThreshold),
+                newFoods);
+    }
+
+    // Scalar values only, read either from the spec defaults or from the loaded config
+    private record Values(int defaultTimer, int regenDelay, int respawnGracePeriod, int startingHealth, int maxSlots,
+                          float regenSpeedModifier, float speedBoost, float eatAgainPercentage,
+                          float drinkSlotFoodEffectivenessBonus, boolean passTicksDuringNight,
+                          float drainSprinting, float drainSwimming, float drainFighting, float drainIdle,
+                          float healQuantum, int foodTickInterval, int foodResyncInterval,
+                          boolean shareFoodWithTeam, float syncMsptBudget,
+                          boolean parallelFoodTick, int parallelFoodTickThreshold) {
+
+        static Values defaults(Config.Common c) {
+            return new Values(c.defaultTimer.getDefault(), c.regenDelay.getDefault(), c.respawnGracePeriod.getDefault(),
+                    c.startingHealth.getDefault(), c.maxSlots.getDefault(), c.regenSpeedModifier.getDefault().floatValue(),
+                    c.speedBoost.getDefault().floatValue(), c.eatAgainPercentage.getDefault().floatValue(),
+                    c.drinkSlotFoodEffectivenessBonus.getDefault().floatValue(), c.passTicksDuringNight.getDefault(),
+                    c.drainSprinting.getDefault().floatValue(), c.drainSwimming.getDefault().floatValue(),
+                    c.drainFighting.getDefault().floatValue(), c.drainIdle.getDefault().floatValue(),
+                    c.healQuantum.getDefault().floatValue(), c.foodTickInterval.getDefault(), c.foodResyncInterval.getDefault(),
+                    c.shareFoodWithTeam.getDefault(), c.syncMsptBudget.getDefault().floatValue(),
+                    c.parallelFoodTick.getDefault(), c.parallelFoodTickThreshold.getDefault());
+        }
+
+        static Values current(Config.Common c) {
+            return new Values(c.defaultTimer.get(), c.regenDelay.get(), c.respawnGracePeriod.get(),
+                    c.startingHealth.get(), c.maxSlots.get(), c.regenSpeedModifier.get().floatValue(),
+                    c.speedBoost.get().floatValue(), c.eatAgainPercentage.get().floatValue(),
+                    c.drinkSlotFoodEffectivenessBonus.get().floatValue(), c.passTicksDuringNight.get(),
+                    c.drainSprinting.get().floatValue(), c.drainSwimming.get().floatValue(),
+                    c.drainFighting.get().floatValue(), c.drainIdle.get().floatValue(),
+                    c.healQuantum.get().floatValue(), c.foodTickInterval.get(), c.foodResyncInterval.get(),
+                    c.shareFoodWithTeam.get(), c.syncMsptBudget.get().floatValue(),
+                    c.parallelFoodTick.get(), c.parallelFoodTickThreshold.get());
+        }
+    }
+}
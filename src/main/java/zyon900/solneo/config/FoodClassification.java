@@ -0,0 +1,57 @@
+package zyon900.solneo.config;
+
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.UseAnim;
+import net.minecraft.world.level.block.CakeBlock;
+import zyon900.solneo.solneo;
+
+/**
+ * Per-item food/drink/cake flags keyed by raw item registry id.
+ * Built once over the frozen item registry at common setup, one byte per item.
+ */
+public final class FoodClassification {
+
+    public static final byte FOOD = 1;  // Has the FOOD data component
+    public static final byte DRINK = 2; // Default instance uses the DRINK animation
+    public static final byte CAKE = 4;  // Vanilla cake or another cake block item
+
+    private static byte[] flags = new byte[0];
+
+    private FoodClassification() {}
+
+    // Call during FMLCommonSetupEvent, before the food table is resolved
+    public static void build() {
+        long start = System.nanoTime();
+        byte[] built = new byte[BuiltInRegistries.ITEM.size()];
+        int consumable = 0;
+        for (Item item : BuiltInRegistries.ITEM) {
+            byte f = 0;
+            if (item.components().has(DataComponents.FOOD)) f |= FOOD;
+            // Only place an ItemStack is created; everything else reads the cached flag
+            if (item.getDefaultInstance().getUseAnimation() == UseAnim.DRINK) f |= DRINK;
+            if (item == Items.CAKE || (item instanceof BlockItem blockItem && blockItem.getBlock() instanceof CakeBlock)) f |= CAKE;
+            if (f != 0) consumable++;
+            built[BuiltInRegistries.ITEM.getId(item)] = f;
+        }
+        flags = built;
+        solneo.LOGGER.info("Classified {} of {} items as food, drink or cake in {} ms.",
+                consumable, built.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public static byte get(int rawId) {
+        byte[] f = flags;
+        return rawId >= 0 && rawId < f.length ? f[rawId] : 0;
+    }
+
+    public static byte get(Item item) {
+        return get(BuiltInRegistries.ITEM.getId(item));
+    }
+
+    public static boolean isDrink(int rawId) {
+        return (get(rawId) & DRINK) != 0;
+    }
+}
@@ -0,0 +1,104 @@
+package zyon900.solneo.config;
+
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.food.FoodProperties;
+import net.minecraft.world.item.Item;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Derives FoodConfigs from vanilla FoodProperties for edible items without an explicit entry.
+ * Port of the auto-generation in the old ModConfig.getFoodConfig, run once per table build
+ * over the whole item registry on the common fork-join pool.
+ */
+final class FoodConfigGenerator {
+
+    private static final int SPLIT_THRESHOLD = 2048; // Items per leaf task
+    private static final int MIN_TIME_TICKS = 6000;
+
+    private FoodConfigGenerator() {}
+
+    // Fills every null slot of a consumable item. The table must be sized to the item registry.
+    static void generateInto(Config.FoodConfig[] table, int defaultTimer) {
+        ForkJoinPool.commonPool().invoke(new GenerateTask(table, 0, table.length, defaultTimer));
+    }
+
+    static Config.FoodConfig generate(Item item, byte flags, int defaultTimer) {
+        ResourceLocation id = BuiltInRegistries.ITEM.getKey(item);
+        String registry = id.toString();
+
+        int nutrition;
+        float saturationModifier;
+        float regenModifier = 1f;
+        if ((flags & FoodClassification.DRINK) != 0) {
+            if (registry.contains("potion")) {
+                nutrition = 4;
+                saturationModifier = 0.75f;
+            } else if (registry.contains("milk")) {
+                nutrition = 6;
+                saturationModifier = 1f;
+            } else {
+                nutrition = 2;
+                saturationModifier = 0.5f;
+            }
+        } else if ((flags & FoodClassification.CAKE) != 0) {
+            nutrition = 10;
+            saturationModifier = 0.7f;
+        } else {
+            FoodProperties food = item.components().get(DataComponents.FOOD);
+            if (food == null) return null;
+            nutrition = food.nutrition();
+            // FoodProperties stores absolute saturation (nutrition * modifier * 2), convert it back
+            saturationModifier = nutrition > 0 ? food.saturation() / (nutrition * 2f) : 0f;
+        }
+
+        if (registry.startsWith("farmers")) {
+            nutrition = (int) (nutrition * 1.25);
+            saturationModifier *= 1.10f;
+            regenModifier = 1.25f;
+        }
+
+        int time = Math.max((int) (defaultTimer * 20 * saturationModifier * nutrition), MIN_TIME_TICKS);
+        float hearts = Math.max(nutrition, 2);
+        // The old mod healed getHealthRegen()/20 every 5 ticks, i.e. 1/100 of it per tick
+        float regenPerTick = Mth.clamp(nutrition * 0.10f * regenModifier, 0.25f, 2f) / 100f;
+        return new Config.FoodConfig(id, time, hearts, regenPerTick, List.of());
+    }
+
+    private static final class GenerateTask extends RecursiveAction {
+        private final Config.FoodConfig[] table;
+        private final int from;
+        private final int to;
+        private final int defaultTimer;
+
+        GenerateTask(Config.FoodConfig[] table, int from, int to, int defaultTimer) {
+            this.table = table;
+            this.from = from;
+            this.to = to;
+            this.defaultTimer = defaultTimer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GenerateTask(table, from, mid, defaultTimer), new GenerateTask(table, mid, to, defaultTimer));
+                return;
+            }
+            // Each task owns a disjoint range of the table, no synchronization needed
+            for (int rawId = from; rawId < to; rawId++) {
+                byte flags = FoodClassification.get(rawId);
+                if (flags == 0 || table[rawId] != null) continue;
+                Item item = BuiltInRegistries.ITEM.byId(rawId);
+                if (item != null) {
+                    table[rawId] = generate(item, flags, defaultTimer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package zyon900.solneo.config;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.minecraft.resources.FileToIdConverter;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import zyon900.solneo.solneo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Loads food definitions from data/&lt;ns&gt;/solneo/foods/*.json on every datapack (re)load.
+ * Files are parsed in parallel during the reload's background phase; the merged rules are handed
+ * to {@link Config} on the server thread, which swaps in a new food table in one write.
+ *
+ * Each file holds one object or an array of objects:
+ * {"target": "minecraft:bread", "duration": 6000, "hearts": 5, "regen": 0.01,
+ *  "effects": [{"id": "minecraft:haste", "duration": 0.5, "amplifier": 0}]}
+ * where target accepts the same item ids, "#tags" and "namespace:*" wildcards as foodProperties.
+ * Entries in the config list always take precedence over datapack entries, and datapack entries over the mod's
+ * built-in defaults ({@link Config.Common#DEFAULT_FOOD_PROPERTIES}).
+ */
+public final class FoodDatapackLoader extends SimplePreparableReloadListener<FoodRules> {
+
+    private static final FileToIdConverter LISTER = FileToIdConverter.json(solneo.MOD_ID + "/foods");
+
+    @Override
+    protected FoodRules prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        // Sorted so overlapping files merge in the same order on every reload
+        Map<ResourceLocation, Resource> files = new TreeMap<>(LISTER.listMatchingResources(resourceManager));
+        List<FoodRules.Builder> parsed = files.entrySet().parallelStream()
+                .map(entry -> parseFile(LISTER.fileToId(entry.getKey()), entry.getValue()))
+                .toList(); // Keeps encounter order
+
+        FoodRules.Builder rules = new FoodRules.Builder();
+        parsed.forEach(rules::addAll);
+        FoodRules result = rules.build();
+        solneo.LOGGER.info("Loaded {} datapack food rules from {} files.", result.size(), files.size());
+        return result;
+    }
+
+    @Override
+    protected void apply(FoodRules rules, ResourceManager resourceManager, ProfilerFiller profiler) {
+        Config.setDatapackFoods(rules);
+    }
+
+    // Runs on a worker thread; only touches its own builder
+    private static FoodRules.Builder parseFile(ResourceLocation fileId, Resource resource) {
+        FoodRules.Builder rules = new FoodRules.Builder();
+        try (Reader reader = resource.openAsReader()) {
+            JsonElement root = JsonParser.parseReader(reader);
+            if (root.isJsonArray()) {
+                JsonArray array = root.getAsJsonArray();
+                for (int i = 0; i < array.size(); i++) {
+                    parseEntry(fileId, GsonHelper.convertToJsonObject(array.get(i), "entry " + i), rules);
+                }
+            } else {
+                parseEntry(fileId, GsonHelper.convertToJsonObject(root, "root"), rules);
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            solneo.LOGGER.warn("Skipping food definition file {}: {}", fileId, e.getMessage());
+        }
+        return rules;
+    }
+
+    private static void parseEntry(ResourceLocation fileId, JsonObject json, FoodRules.Builder rules) {
+        String target = GsonHelper.getAsString(json, "target");
+        int duration = GsonHelper.getAsInt(json, "duration");
+        float hearts = GsonHelper.getAsFloat(json, "hearts");
+        float regen = GsonHelper.getAsFloat(json, "regen");
+
+        List<Config.MobEffectConfig> effects = List.of();
+        JsonArray effectArray = GsonHelper.getAsJsonArray(json, "effects", null);
+        if (effectArray != null && !effectArray.isEmpty()) {
+            effects = new ArrayList<>(effectArray.size());
+            for (JsonElement element : effectArray) {
+                JsonObject effect = GsonHelper.convertToJsonObject(element, "effect");
+                effects.add(new Config.MobEffectConfig(GsonHelper.getAsString(effect, "id"),
+                        GsonHelper.getAsFloat(effect, "duration", 1.0f), GsonHelper.getAsInt(effect, "amplifier", 0)));
+            }
+        }
+
+        String error = rules.add(target, duration, hearts, regen, effects);
+        if (error != null) {
+            solneo.LOGGER.warn("Skipping food definition in {}: {}", fileId, error);
+        }
+    }
+}
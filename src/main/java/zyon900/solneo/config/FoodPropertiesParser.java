@@ -0,0 +1,152 @@
+package zyon900.solneo.config;
+
+import net.minecraft.resources.ResourceLocation;
+import zyon900.solneo.solneo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass parser for the foodProperties list.
+ * Walks each entry by index instead of splitting it, and collects malformed lines
+ * so they can be reported in one summary instead of one stack trace per line.
+ *
+ * Format: "target|duration_ticks|hearts|regen_per_tick[|effect_id:duration_mult:amplifier]..."
+ * where target is an item id, an item tag ("#c:foods") or a namespace wildcard ("farmersdelight:*").
+ */
+final class FoodPropertiesParser {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final List<String> errors = new ArrayList<>();
+    private int errorCount = 0;
+
+    private FoodPropertiesParser() {}
+
+    static FoodRules parse(List<? extends String> list) {
+        FoodRules.Builder rules = new FoodRules.Builder();
+        if (list == null) return rules.build(); // Handle null case
+
+        FoodPropertiesParser parser = new FoodPropertiesParser();
+        for (int line = 0; line < list.size(); line++) {
+            String entry = list.get(line);
+            if (entry == null) {
+                parser.error(line, "null entry");
+                continue;
+            }
+            parser.parseEntry(line, entry, rules); // Later entries win, same as before
+        }
+        parser.logSummary(list.size());
+        return rules.build();
+    }
+
+    // Same result as entry.split("\\|").length, without allocating the parts.
+    // Trailing empty parts are dropped just like String.split does.
+    static int countParts(String entry) {
+        int end = entry.length();
+        while (end > 0 && entry.charAt(end - 1) == '|') end--;
+        if (end == 0) return entry.isEmpty() ? 1 : 0;
+        int parts = 1;
+        for (int i = 0; i < end; i++) {
+            if (entry.charAt(i) == '|') parts++;
+        }
+        return parts;
+    }
+
+    private void parseEntry(int line, String entry, FoodRules.Builder rules) {
+        int length = entry.length();
+        while (length > 0 && entry.charAt(length - 1) == '|') length--; // Trailing empty parts are ignored
+
+        // Positions of the first three separators: id | duration | hearts | regen
+        int idEnd = entry.indexOf('|');
+        int durationEnd = idEnd < 0 || idEnd >= length ? -1 : entry.indexOf('|', idEnd + 1);
+        int heartsEnd = durationEnd < 0 || durationEnd >= length ? -1 : entry.indexOf('|', durationEnd + 1);
+        if (heartsEnd < 0 || heartsEnd >= length) {
+            error(line, "expected at least 4 parts: " + entry);
+            return;
+        }
+        int regenEnd = entry.indexOf('|', heartsEnd + 1);
+        if (regenEnd < 0 || regenEnd > length) regenEnd = length;
+
+        try {
+            String target = trimmed(entry, 0, idEnd);
+            int duration = parseInt(entry, idEnd + 1, durationEnd, true);
+            float hearts = Float.parseFloat(entry.substring(durationEnd + 1, heartsEnd)); // parseFloat trims itself
+            float regen = Float.parseFloat(entry.substring(heartsEnd + 1, regenEnd));
+
+            List<Config.MobEffectConfig> effects = List.of();
+            int start = regenEnd + 1;
+            while (start <= length && regenEnd < length) {
+                int end = entry.indexOf('|', start);
+                if (end < 0 || end > length) end = length;
+                Config.MobEffectConfig effect = parseEffect(line, entry, start, end);
+                if (effect != null) {
+                    if (effects.isEmpty()) effects = new ArrayList<>(2);
+                    effects.add(effect);
+                }
+                if (end == length) break;
+                start = end + 1;
+            }
+
+            String error = rules.add(target, duration, hearts, regen, effects);
+            if (error != null) error(line, error);
+        } catch (NumberFormatException e) {
+            error(line, e.getMessage() + " in: " + entry);
+        }
+    }
+
+    // "effect_id:duration_mult:amplifier" with exactly three ':'-separated parts, same as the old split-based parser.
+    // A namespaced effect id ("minecraft:haste:1.0:0") has four parts and is skipped with a warning like before.
+    private Config.MobEffectConfig parseEffect(int line, String entry, int start, int end) {
+        while (start < end && entry.charAt(start) <= ' ') start++;
+        while (end > start && entry.charAt(end - 1) <= ' ') end--;
+        while (end > start && entry.charAt(end - 1) == ':') end--; // Trailing empty parts are ignored
+
+        int durSep = entry.indexOf(':', start);
+        int ampSep = durSep < 0 || durSep >= end ? -1 : entry.indexOf(':', durSep + 1);
+        int extraSep = ampSep < 0 || ampSep >= end ? -1 : entry.indexOf(':', ampSep + 1);
+        if (ampSep < 0 || ampSep >= end || (extraSep >= 0 && extraSep < end)) {
+            error(line, "invalid mob effect '" + entry.substring(start, end) + "'");
+            return null;
+        }
+        // Bad numbers throw and reject the whole entry, as before
+        String effectId = entry.substring(start, durSep);
+        float durationMult = Float.parseFloat(entry.substring(durSep + 1, ampSep));
+        int amplifier = parseInt(entry, ampSep + 1, end, false); // Not trimmed, Integer.parseInt never was
+        return new Config.MobEffectConfig(effectId, durationMult, amplifier);
+    }
+
+    private static String trimmed(String s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') start++;
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        return s.substring(start, end);
+    }
+
+    // Integer.parseInt over a range of the entry, optionally trimming like String.trim()
+    private static int parseInt(String s, int start, int end, boolean trim) {
+        if (trim) {
+            while (start < end && s.charAt(start) <= ' ') start++;
+            while (end > start && s.charAt(end - 1) <= ' ') end--;
+        }
+        return Integer.parseInt(s, start, end, 10);
+    }
+
+    private void error(int line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + (line + 1) + ": " + message);
+        }
+    }
+
+    private void logSummary(int total) {
+        if (errorCount == 0) return;
+        StringBuilder sb = new StringBuilder();
+        for (String error : errors) {
+            sb.append("\n  ").append(error);
+        }
+        if (errorCount > errors.size()) {
+            sb.append("\n  ... and ").append(errorCount - errors.size()).append(" more");
+        }
+        solneo.LOGGER.warn("Found {} problem(s) in {} foodProperties entries:{}", errorCount, total, sb);
+    }
+}
@@ -0,0 +1,75 @@
+package zyon900.solneo.config;
+
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Food entries grouped by how they match items, before they are compiled into a {@link FoodTable}.
+ * Precedence when several rules match one item: exact item id, then item tag, then namespace wildcard,
+ * then the generated default. Among tags, the rule listed last wins.
+ *
+ * Rule configs are templates with a null id; the table stores a copy per matched item.
+ */
+record FoodRules(Map<ResourceLocation, Config.FoodConfig> items,
+                 Map<String, Config.FoodConfig> namespaces,
+                 List<TagRule> tags) {
+
+    static final FoodRules EMPTY = new FoodRules(Map.of(), Map.of(), List.of());
+
+    record TagRule(TagKey<Item> tag, Config.FoodConfig config) {}
+
+    int size() {
+        return items.size() + namespaces.size() + tags.size();
+    }
+
+    static final class Builder {
+        private final Map<ResourceLocation, Config.FoodConfig> items = new HashMap<>();
+        private final Map<String, Config.FoodConfig> namespaces = new HashMap<>();
+        private final Map<ResourceLocation, Config.FoodConfig> tags = new LinkedHashMap<>();
+
+        // Target is "namespace:item", "#namespace:tag" or "namespace:*".
+        // Later entries replace earlier ones for the same target. Returns an error message, or null on success.
+        String add(String target, int duration, float hearts, float regen, List<Config.MobEffectConfig> effects) {
+            if (target.startsWith("#")) {
+                ResourceLocation tagId = ResourceLocation.tryParse(target.substring(1));
+                if (tagId == null) return "invalid item tag '" + target + "'";
+                addTag(tagId, new Config.FoodConfig(null, duration, hearts, regen, effects));
+            } else if (target.endsWith(":*")) {
+                String namespace = target.substring(0, target.length() - 2);
+                if (!ResourceLocation.isValidNamespace(namespace)) return "invalid namespace wildcard '" + target + "'";
+                namespaces.put(namespace, new Config.FoodConfig(null, duration, hearts, regen, effects));
+            } else {
+                ResourceLocation itemId = ResourceLocation.tryParse(target);
+                if (itemId == null) return "invalid item id '" + target + "'";
+                items.put(itemId, new Config.FoodConfig(itemId, duration, hearts, regen, effects));
+            }
+            return null;
+        }
+
+        // Appends another builder's rules as if its entries were listed after this one's
+        void addAll(Builder other) {
+            items.putAll(other.items);
+            namespaces.putAll(other.namespaces);
+            other.tags.forEach(this::addTag);
+        }
+
+        private void addTag(ResourceLocation tag, Config.FoodConfig template) {
+            tags.remove(tag); // Re-insert so list order still decides between overlapping tags
+            tags.put(tag, template);
+        }
+
+        FoodRules build() {
+            List<TagRule> tagRules = new ArrayList<>(tags.size());
+            tags.forEach((id, config) -> tagRules.add(new TagRule(TagKey.create(Registries.ITEM, id), config)));
+            return new FoodRules(items, namespaces, tagRules);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package zyon900.solneo.config;
+
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import zyon900.solneo.solneo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolved food configs indexed by raw item registry id.
+ * Built once per parse of the foodProperties list so lookups are a single array read.
+ * Rules are compiled in {@link FoodRules} precedence order; the mod's built-in defaults and then configs generated
+ * by {@link FoodConfigGenerator} only fill items no rule matched.
+ *
+ * Tag rules can only be resolved once tags are bound, and datapack rules change on every /reload, so
+ * {@link #build} produces a base table from the config list that keeps its tag rules, and {@link #resolve}
+ * layers datapack rules and tags on top of a copy of it.
+ */
+public final class FoodTable {
+
+    // Where an entry came from, stored per raw id. Higher values take precedence: config entries beat datapack
+    // entries, which beat the built-in defaults, and within config and datapack, exact item > tag > namespace wildcard.
+    public static final byte SOURCE_NONE = 0;
+    public static final byte SOURCE_GENERATED = 1;
+    public static final byte SOURCE_BUILT_IN = 2;
+    public static final byte SOURCE_DATAPACK_NAMESPACE = 3;
+    public static final byte SOURCE_DATAPACK_TAG = 4;
+    public static final byte SOURCE_DATAPACK_EXPLICIT = 5;
+    public static final byte SOURCE_NAMESPACE = 6;
+    public static final byte SOURCE_TAG = 7;
+    public static final byte SOURCE_EXPLICIT = 8;
+
+    public static final FoodTable EMPTY = new FoodTable(new Config.FoodConfig[0], new byte[0], List.of());
+
+    private final Config.FoodConfig[] byRawId;
+    private final byte[] sources;
+    private final List<FoodRules.TagRule> tagRules; // Config tag rules, not yet applied to the arrays
+    private final int size;
+    private final int explicitCount;  // Entries taken from exact item ids in the config list
+    private final int generatedCount; // Entries derived from vanilla FoodProperties
+
+    private FoodTable(Config.FoodConfig[] byRawId, byte[] sources, List<FoodRules.TagRule> tagRules) {
+        this.byRawId = byRawId;
+        this.sources = sources;
+        this.tagRules = tagRules;
+        int total = 0;
+        int explicit = 0;
+        int generated = 0;
+        for (int i = 0; i < byRawId.length; i++) {
+            if (byRawId[i] == null) continue;
+            total++;
+            if (sources[i] == SOURCE_EXPLICIT) explicit++;
+            else if (sources[i] == SOURCE_GENERATED) generated++;
+        }
+        this.size = total;
+        this.explicitCount = explicit;
+        this.generatedCount = generated;
+    }
+
+    // Wraps already resolved arrays (e.g. from the binary cache or the network)
+    static FoodTable of(Config.FoodConfig[] byRawId, byte[] sources, List<FoodRules.TagRule> tagRules) {
+        return new FoodTable(byRawId, sources, List.copyOf(tagRules));
+    }
+
+    // Resolves item and namespace rules against the item registry, then the built-in item defaults, then generates
+    // configs for the remaining foods. Items that aren't food, cake or a drink never get an entry (see FoodClassification).
+    public static FoodTable build(FoodRules rules, FoodRules builtIn, int defaultTimer) {
+        Config.FoodConfig[] table = new Config.FoodConfig[BuiltInRegistries.ITEM.size()];
+        byte[] sources = new byte[table.length];
+        fillItems(table, sources, rules.items(), SOURCE_EXPLICIT);
+
+        if (!rules.namespaces().isEmpty()) {
+            for (Item item : BuiltInRegistries.ITEM) {
+                int rawId = BuiltInRegistries.ITEM.getId(item);
+                if (sources[rawId] != SOURCE_NONE || FoodClassification.get(rawId) == 0) continue;
+                ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
+                Config.FoodConfig template = rules.namespaces().get(itemId.getNamespace());
+                if (template != null) {
+                    table[rawId] = template.copyFor(itemId);
+                    sources[rawId] = SOURCE_NAMESPACE;
+                }
+            }
+        }
+
+        fillItems(table, sources, builtIn.items(), SOURCE_BUILT_IN);
+
+        // Rule entries are already in place, generation only fills the gaps
+        long start = System.nanoTime();
+        FoodConfigGenerator.generateInto(table, defaultTimer);
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && sources[i] == SOURCE_NONE) sources[i] = SOURCE_GENERATED;
+        }
+        FoodTable result = of(table, sources, rules.tags());
+        solneo.LOGGER.info("Generated {} food configs from item food properties in {} ms.",
+                result.generatedCount, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    // Puts exact item entries into slots nothing has claimed yet
+    private static void fillItems(Config.FoodConfig[] table, byte[] sources, Map<ResourceLocation, Config.FoodConfig> items,
+                                  byte source) {
+        for (Map.Entry<ResourceLocation, Config.FoodConfig> entry : items.entrySet()) {
+            if (!BuiltInRegistries.ITEM.containsKey(entry.getKey())) {
+                continue; // Item from a mod that isn't installed
+            }
+            Item item = BuiltInRegistries.ITEM.get(entry.getKey());
+            int rawId = BuiltInRegistries.ITEM.getId(item);
+            if (sources[rawId] != SOURCE_NONE || FoodClassification.get(rawId) == 0) {
+                continue;
+            }
+            table[rawId] = entry.getValue();
+            sources[rawId] = source;
+        }
+    }
+
+    // Layers datapack rules and all tag rules over a copy of this base table, using the currently bound item tags.
+    // Call on the base table again after every datapack or tag reload; the base entries are never modified.
+    public FoodTable resolve(FoodRules datapack) {
+        if (tagRules.isEmpty() && datapack.size() == 0) return this;
+        Config.FoodConfig[] table = byRawId.clone();
+        byte[] resolvedSources = sources.clone();
+
+        // Lowest precedence first; each layer only replaces entries from lower or equal sources
+        if (!datapack.namespaces().isEmpty()) {
+            for (Item item : BuiltInRegistries.ITEM) {
+                ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
+                Config.FoodConfig template = datapack.namespaces().get(itemId.getNamespace());
+                if (template != null) {
+                    put(table, resolvedSources, BuiltInRegistries.ITEM.getId(item), itemId, template, SOURCE_DATAPACK_NAMESPACE);
+                }
+            }
+        }
+        applyTags(table, resolvedSources, datapack.tags(), SOURCE_DATAPACK_TAG);
+        for (Map.Entry<ResourceLocation, Config.FoodConfig> entry : datapack.items().entrySet()) {
+            if (BuiltInRegistries.ITEM.containsKey(entry.getKey())) {
+                int rawId = BuiltInRegistries.ITEM.getId(BuiltInRegistries.ITEM.get(entry.getKey()));
+                put(table, resolvedSources, rawId, entry.getKey(), entry.getValue(), SOURCE_DATAPACK_EXPLICIT);
+            }
+        }
+        applyTags(table, resolvedSources, tagRules, SOURCE_TAG);
+        return new FoodTable(table, resolvedSources, tagRules);
+    }
+
+    private static void applyTags(Config.FoodConfig[] table, byte[] sources, List<FoodRules.TagRule> rules, byte source) {
+        for (FoodRules.TagRule rule : rules) {
+            for (Holder<Item> holder : BuiltInRegistries.ITEM.getTagOrEmpty(rule.tag())) {
+                Item item = holder.value();
+                put(table, sources, BuiltInRegistries.ITEM.getId(item), BuiltInRegistries.ITEM.getKey(item), rule.config(), source);
+            }
+        }
+    }
+
+    private static void put(Config.FoodConfig[] table, byte[] sources, int rawId, ResourceLocation itemId,
+                            Config.FoodConfig template, byte source) {
+        if (rawId < 0 || rawId >= table.length || FoodClassification.get(rawId) == 0) return;
+        if (sources[rawId] > source) return; // Higher precedence entry already present
+        table[rawId] = template.id != null ? template : template.copyFor(itemId);
+        sources[rawId] = source;
+    }
+
+    // Returns null if the item has no config or isn't considered food
+    public Config.FoodConfig get(Item item) {
+        return get(BuiltInRegistries.ITEM.getId(item));
+    }
+
+    public Config.FoodConfig get(int rawId) {
+        return rawId >= 0 && rawId < byRawId.length ? byRawId[rawId] : null;
+    }
+
+    public byte source(int rawId) {
+        return rawId >= 0 && rawId < sources.length ? sources[rawId] : SOURCE_NONE;
+    }
+
+    // Unresolved config tag rules this table was compiled with
+    List<FoodRules.TagRule> tagRules() {
+        return tagRules;
+    }
+
+    // Length of the id-indexed arrays (the item registry size at build time)
+    public int capacity() {
+        return byRawId.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int explicitCount() {
+        return explicitCount;
+    }
+
+    public int generatedCount() {
+        return generatedCount;
+    }
+}
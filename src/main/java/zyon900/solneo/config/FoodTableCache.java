@@ -0,0 +1,191 @@
+package zyon900.solneo.config;
+
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.food.FoodProperties;
+import net.minecraft.world.item.Item;
+import net.neoforged.fml.ModList;
+import zyon900.solneo.solneo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary cache of a base {@link FoodTable} and its tag rules, keyed by a hash of everything the table is built from:
+ * the foodProperties list, defaultTimer, the item registry contents (ids, classification and food values) and the mod
+ * version, which covers the built-in defaults and the generation formulas.
+ * A key mismatch or unreadable file simply means a full parse.
+ */
+final class FoodTableCache {
+
+    private static final int MAGIC = 0x534F4C46; // "SOLF"
+    private static final int FORMAT_VERSION = 3;
+    private static final int KEY_LENGTH = 32; // SHA-256
+
+    private FoodTableCache() {}
+
+    static byte[] computeKey(List<? extends String> foodProperties, int defaultTimer) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer scratch = ByteBuffer.allocate(16);
+        scratch.putInt(FORMAT_VERSION).putInt(defaultTimer).putInt(foodProperties.size()).putInt(BuiltInRegistries.ITEM.size());
+        digest.update(scratch.array(), 0, scratch.position());
+        digest.update(modVersion().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        for (String entry : foodProperties) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+
+        for (Item item : BuiltInRegistries.ITEM) {
+            int rawId = BuiltInRegistries.ITEM.getId(item);
+            digest.update(BuiltInRegistries.ITEM.getKey(item).toString().getBytes(StandardCharsets.UTF_8));
+            scratch.clear();
+            scratch.putInt(rawId).put(FoodClassification.get(rawId));
+            FoodProperties food = item.components().get(DataComponents.FOOD);
+            if (food != null) {
+                scratch.putInt(food.nutrition()).putFloat(food.saturation());
+            }
+            digest.update(scratch.array(), 0, scratch.position());
+        }
+        return digest.digest();
+    }
+
+    private static String modVersion() {
+        return ModList.get().getModContainerById(solneo.MOD_ID)
+                .map(container -> container.getModInfo().getVersion().toString())
+                .orElse("");
+    }
+
+    // Returns null on a missing, stale or corrupt cache file.
+    // Read onto the heap rather than memory-mapped: a mapping stays open until it is garbage collected, and on
+    // Windows an open mapping makes the atomic replace in write() fail. The file is small, one entry per food item.
+    static FoodTable read(Path file, byte[] key) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buf.remaining() < 8 + KEY_LENGTH || buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] storedKey = new byte[KEY_LENGTH];
+            buf.get(storedKey);
+            if (!Arrays.equals(storedKey, key)) {
+                return null;
+            }
+
+            int tableSize = buf.getInt();
+            if (tableSize != BuiltInRegistries.ITEM.size()) return null;
+            Config.FoodConfig[] table = new Config.FoodConfig[tableSize];
+            byte[] sources = new byte[tableSize];
+            int entries = buf.getInt();
+            for (int i = 0; i < entries; i++) {
+                int rawId = buf.getInt();
+                byte source = buf.get();
+                Item item = BuiltInRegistries.ITEM.byId(rawId);
+                table[rawId] = readConfig(buf, BuiltInRegistries.ITEM.getKey(item));
+                sources[rawId] = source;
+            }
+
+            int tagRuleCount = buf.getInt();
+            List<FoodRules.TagRule> tagRules = new ArrayList<>(tagRuleCount);
+            for (int i = 0; i < tagRuleCount; i++) {
+                ResourceLocation tagId = ResourceLocation.parse(readString(buf));
+                tagRules.add(new FoodRules.TagRule(TagKey.create(Registries.ITEM, tagId), readConfig(buf, null)));
+            }
+            return FoodTable.of(table, sources, tagRules);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            solneo.LOGGER.warn("Ignoring unreadable food table cache {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    // Stores a base table (tag rules unresolved), since tag contents can change on every datapack reload
+    static void write(Path file, byte[] key, FoodTable base) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.write(key);
+            out.writeInt(base.capacity());
+            out.writeInt(base.size());
+            for (int rawId = 0; rawId < base.capacity(); rawId++) {
+                Config.FoodConfig config = base.get(rawId);
+                if (config == null) continue;
+                out.writeInt(rawId);
+                out.writeByte(base.source(rawId));
+                writeConfig(out, config);
+            }
+
+            out.writeInt(base.tagRules().size());
+            for (FoodRules.TagRule rule : base.tagRules()) {
+                writeString(out, rule.tag().location().toString());
+                writeConfig(out, rule.config());
+            }
+            out.flush();
+
+            // Write next to the target and move it into place so a crash never leaves a half-written cache
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            solneo.LOGGER.warn("Failed to write food table cache {}: {}", file, e.toString());
+        }
+    }
+
+    private static void writeConfig(DataOutputStream out, Config.FoodConfig config) throws IOException {
+        out.writeInt(config.getTime());
+        out.writeFloat(config.getHearts());
+        out.writeFloat(config.getHealthRegenPerTick());
+        out.writeShort(config.getExtraEffects().size());
+        for (Config.MobEffectConfig effect : config.getExtraEffects()) {
+            writeString(out, effect.effectId);
+            out.writeFloat(effect.durationMultiplier);
+            out.writeInt(effect.amplifier);
+        }
+    }
+
+    private static Config.FoodConfig readConfig(ByteBuffer buf, ResourceLocation id) {
+        int time = buf.getInt();
+        float hearts = buf.getFloat();
+        float regen = buf.getFloat();
+        int effectCount = buf.getShort();
+        List<Config.MobEffectConfig> effects = effectCount == 0 ? List.of() : new ArrayList<>(effectCount);
+        for (int e = 0; e < effectCount; e++) {
+            effects.add(new Config.MobEffectConfig(readString(buf), buf.getFloat(), buf.getInt()));
+        }
+        return new Config.FoodConfig(id, time, hearts, regen, effects);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package zyon900.solneo.config;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Network encoding of a resolved {@link FoodTable}. Items and effects are written as raw registry ids,
+ * which NeoForge keeps in sync between server and client, so an entry is usually under 16 bytes.
+ * Tag rules are not sent: the server table is already fully resolved.
+ */
+public final class FoodTableCodec {
+
+    private FoodTableCodec() {}
+
+    public static void write(FriendlyByteBuf buf, FoodTable table) {
+        buf.writeVarInt(table.size());
+        for (int rawId = 0; rawId < table.capacity(); rawId++) {
+            Config.FoodConfig config = table.get(rawId);
+            if (config == null) continue;
+            buf.writeVarInt(rawId);
+            buf.writeByte(table.source(rawId));
+            buf.writeVarInt(config.getTime());
+            buf.writeFloat(config.getHearts());
+            buf.writeFloat(config.getHealthRegenPerTick());
+
+            // Effects that don't resolve on the server would do nothing on the client either
+            int effectCount = 0;
+            for (Config.MobEffectConfig effect : config.getExtraEffects()) {
+                if (effect.getEffect() != null) effectCount++;
+            }
+            buf.writeVarInt(effectCount);
+            for (Config.MobEffectConfig effect : config.getExtraEffects()) {
+                if (effect.getEffect() == null) continue;
+                buf.writeVarInt(BuiltInRegistries.MOB_EFFECT.getId(effect.getEffect()));
+                buf.writeFloat(effect.durationMultiplier);
+                buf.writeVarInt(effect.amplifier);
+            }
+        }
+    }
+
+    public static FoodTable read(FriendlyByteBuf buf) {
+        int capacity = BuiltInRegistries.ITEM.size();
+        Config.FoodConfig[] table = new Config.FoodConfig[capacity];
+        byte[] sources = new byte[capacity];
+        int entries = buf.readVarInt();
+        for (int i = 0; i < entries; i++) {
+            int rawId = buf.readVarInt();
+            byte source = buf.readByte();
+            int time = buf.readVarInt();
+            float hearts = buf.readFloat();
+            float regen = buf.readFloat();
+            int effectCount = buf.readVarInt();
+            List<Config.MobEffectConfig> effects = effectCount == 0 ? List.of() : new ArrayList<>(effectCount);
+            for (int e = 0; e < effectCount; e++) {
+                MobEffect effect = BuiltInRegistries.MOB_EFFECT.byId(buf.readVarInt());
+                float durationMult = buf.readFloat();
+                int amplifier = buf.readVarInt();
+                ResourceLocation effectId = effect != null ? BuiltInRegistries.MOB_EFFECT.getKey(effect) : null;
+                if (effectId != null) {
+                    effects.add(new Config.MobEffectConfig(effectId.toString(), durationMult, amplifier));
+                }
+            }
+
+            Item item = rawId >= 0 && rawId < capacity ? BuiltInRegistries.ITEM.byId(rawId) : null;
+            if (item == null) continue; // Out of range id, nothing sensible to attach it to
+            table[rawId] = new Config.FoodConfig(BuiltInRegistries.ITEM.getKey(item), time, hearts, regen, effects);
+            sources[rawId] = source;
+        }
+        return FoodTable.of(table, sources, List.of());
+    }
+}
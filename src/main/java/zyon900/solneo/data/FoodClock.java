@@ -0,0 +1,123 @@
+package zyon900.solneo.data;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import zyon900.solneo.capabilities.ModAttachments;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-level time base for food expiry: the level's game time plus every tick skipped by sleeping through the night.
+ * A night skip only moves this clock forward and appends to a log, so its cost doesn't depend on the player count;
+ * each {@link ValheimFoodData} applies the skips it hasn't seen the next time it is read. Skips every reader has
+ * applied are dropped from the log on the next skip, so it holds at most a few entries.
+ * Offsets are not saved: food data is stored as remaining ticks, so the clock may restart from the game time.
+ */
+public final class FoodClock {
+
+    private static final Map<ResourceKey<Level>, FoodClock> clocks = new HashMap<>();
+
+    private final ServerLevel level;
+    private final LongSupplier gameTime;
+    private long offset = 0L; // Total ticks skipped in this level
+    // Log of night skips as clock time before and after the skip. Indices are counted from the clock's creation;
+    // the first skipBase entries have been dropped.
+    private long[] skipStarts = new long[4];
+    private long[] skipEnds = new long[4];
+    private int skipBase = 0;
+    private int skipCount = 0;
+
+    private FoodClock(ServerLevel level) {
+        this(level, level::getGameTime);
+    }
+
+    // Tests drive the clock from their own game time source
+    FoodClock(ServerLevel level, LongSupplier gameTime) {
+        this.level = level;
+        this.gameTime = gameTime;
+    }
+
+    public static FoodClock of(ServerLevel level) {
+        FoodClock clock = clocks.get(level.dimension());
+        if (clock == null || clock.level != level) { // New server or level instance
+            clock = new FoodClock(level);
+            clocks.put(level.dimension(), clock);
+        }
+        return clock;
+    }
+
+    static Collection<FoodClock> all() {
+        return clocks.values();
+    }
+
+    public static void clear() {
+        clocks.clear();
+    }
+
+    public long now() {
+        return gameTime.getAsLong() + offset;
+    }
+
+    // Night skip: advances this level's food time by the skipped ticks
+    public void skip(long ticks) {
+        if (ticks <= 0) return;
+        if (level != null) dropAppliedSkips(readers());
+        int stored = skipCount - skipBase;
+        if (stored == skipStarts.length) {
+            skipStarts = Arrays.copyOf(skipStarts, stored * 2);
+            skipEnds = Arrays.copyOf(skipEnds, stored * 2);
+        }
+        skipStarts[stored] = now();
+        offset += ticks;
+        skipEnds[stored] = now();
+        skipCount++;
+    }
+
+    // Data is only attached to the clock of its player's level; FoodEvents moves it on dimension changes
+    private List<ValheimFoodData> readers() {
+        List<ServerPlayer> players = level.players();
+        List<ValheimFoodData> data = new ArrayList<>(players.size());
+        for (ServerPlayer player : players) data.add(ModAttachments.getFoodData(player));
+        return data;
+    }
+
+    // Drops the logged skips that all of the given data has applied
+    void dropAppliedSkips(Collection<ValheimFoodData> readers) {
+        int lowest = skipCount;
+        for (ValheimFoodData data : readers) lowest = Math.min(lowest, data.firstPendingSkip(this));
+        int dropped = lowest - skipBase;
+        if (dropped <= 0) return;
+        System.arraycopy(skipStarts, dropped, skipStarts, 0, skipCount - lowest);
+        System.arraycopy(skipEnds, dropped, skipEnds, 0, skipCount - lowest);
+        skipBase = lowest;
+    }
+
+    int skipCount() {
+        return skipCount;
+    }
+
+    // Skips still in the log, for tests
+    int storedSkips() {
+        return skipCount - skipBase;
+    }
+
+    long skipStart(int index) {
+        return skipStarts[index - skipBase];
+    }
+
+    long skipEnd(int index) {
+        return skipEnds[index - skipBase];
+    }
+
+    public ServerLevel level() {
+        return level;
+    }
+}
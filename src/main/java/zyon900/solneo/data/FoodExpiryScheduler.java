@@ -0,0 +1,102 @@
+package zyon900.solneo.data;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import zyon900.solneo.capabilities.ModAttachments;
+import zyon900.solneo.network.FoodSync;
+import zyon900.solneo.solneo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Server-wide schedule of food expiries, so a tick where nothing runs out costs a single key compare per level
+ * instead of a visit to every online player.
+ *
+ * A bucketed priority queue per {@link FoodClock}, keyed by food clock time. Each player is queued once, at the
+ * earliest expiry of their {@link ValheimFoodData}; when that bucket fires the data is ticked and the player is
+ * queued again at their next expiry, so every slot is handled on the tick it runs out. Rescheduling (re-eating,
+ * changing level) and cancelling (logout, death) only update the live entry per player; stale bucket entries are
+ * skipped when their bucket fires. A night skip jumps the clock forward, so every bucket it passes fires on the
+ * next tick and the affected players are requeued with the skip applied. Server thread only.
+ */
+public final class FoodExpiryScheduler {
+
+    private record Entry(FoodClock clock, long expiry) {}
+
+    // Expiry time -> players to tick at that time (may include stale entries), per level clock
+    private static final Map<FoodClock, TreeMap<Long, List<UUID>>> buckets = new IdentityHashMap<>();
+    // Clocks with a queue, walked by index so firing may add a level without invalidating the loop
+    private static final List<FoodClock> clocks = new ArrayList<>();
+    // The one live entry per player; anything else in the buckets is cancelled
+    private static final Map<UUID, Entry> scheduled = new HashMap<>();
+
+    private FoodExpiryScheduler() {}
+
+    // (Re)queues a player at their data's earliest expiry. Call after anything that changes the slots.
+    public static void schedule(ServerPlayer player, ValheimFoodData data) {
+        UUID id = player.getUUID();
+        long expiry = data.getEarliestExpiry();
+        FoodClock clock = data.getClock();
+        if (expiry == Long.MAX_VALUE || clock == null) {
+            scheduled.remove(id); // Nothing left to expire
+            return;
+        }
+        Entry entry = new Entry(clock, expiry);
+        if (entry.equals(scheduled.put(id, entry))) return; // Already queued at this time
+        TreeMap<Long, List<UUID>> queue = buckets.get(clock);
+        if (queue == null) {
+            queue = new TreeMap<>();
+            buckets.put(clock, queue);
+            clocks.add(clock);
+        }
+        queue.computeIfAbsent(expiry, time -> new ArrayList<>(2)).add(id);
+    }
+
+    public static void cancel(ServerPlayer player) {
+        scheduled.remove(player.getUUID());
+    }
+
+    public static void tick(MinecraftServer server) {
+        for (int c = 0; c < clocks.size(); c++) {
+            FoodClock clock = clocks.get(c);
+            TreeMap<Long, List<UUID>> queue = buckets.get(clock);
+            long now = clock.now();
+            while (!queue.isEmpty() && queue.firstKey() <= now) {
+                Map.Entry<Long, List<UUID>> bucket = queue.pollFirstEntry();
+                long time = bucket.getKey();
+                for (UUID id : bucket.getValue()) {
+                    Entry live = scheduled.get(id);
+                    if (live == null || live.clock() != clock || live.expiry() != time) continue; // Cancelled or rescheduled since
+                    scheduled.remove(id);
+
+                    ServerPlayer player = server.getPlayerList().getPlayer(id);
+                    if (player == null) continue;
+                    ValheimFoodData data = ModAttachments.getFoodData(player);
+                    if (data.tick(FoodClock.of(player.serverLevel()))) {
+                        solneo.LOGGER.debug("Food expired for {} at food time {}.", player.getScoreboardName(), now);
+                        FoodSync.markDirty(player);
+                        FoodTickSystem.update(player); // Leaves the active set once the last slot is gone
+                    }
+                    schedule(player, data); // Possibly into another level's queue, never this one's due range
+                }
+            }
+        }
+    }
+
+    // Number of players with a pending expiry
+    public static int size() {
+        return scheduled.size();
+    }
+
+    public static void clear() {
+        buckets.clear();
+        clocks.clear();
+        scheduled.clear();
+    }
+}
@@ -0,0 +1,439 @@
+package zyon900.solneo.data;
+
+import net.minecraft.Util;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.ai.attributes.AttributeInstance;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.level.GameType;
+import zyon900.solneo.capabilities.ModAttachments;
+import zyon900.solneo.config.Config;
+import zyon900.solneo.config.ConfigSnapshot;
+import zyon900.solneo.network.FoodSync;
+import zyon900.solneo.solneo;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Per-tick food effects for every active player, run once per server tick instead of inside each Player.tick.
+ * Port of the old PlayerEntityMixin tick: max health from active foods, the speed boost at 20+ HP and regeneration.
+ *
+ * Only players with something in their stomach who are in survival or adventure mode are in the set, so idle,
+ * creative and spectating players cost nothing per tick. {@link #update} moves a player in or out, leaving players
+ * outside the set with the base max health and no speed boost. It is called on eating, expiry and gamemode changes,
+ * and through {@link #join} on login and respawn.
+ *
+ * With foodTickInterval above 1 each player is only processed every N ticks, at a phase spread across the interval.
+ * Regen for the skipped ticks is integrated exactly when the player is next processed.
+ *
+ * The player's activity (fighting, swimming, sprinting, idle) picks the food drain rate. It is checked per player,
+ * not per slot, and the slots' expiries are only rescaled when the rate actually changes.
+ *
+ * Active players live in dense parallel arrays. The first pass only reads food data and fills the result arrays,
+ * and can run on the fork-join pool (parallelFoodTick); the second pass applies attributes and healing serially.
+ * Expiry itself is handled by {@link FoodExpiryScheduler}.
+ * Server thread only.
+ */
+public final class FoodTickSystem {
+
+    private static final ResourceLocation MAX_HEALTH_ID = ResourceLocation.fromNamespaceAndPath(solneo.MOD_ID, "food_max_health");
+    private static final ResourceLocation SPEED_BOOST_ID = ResourceLocation.fromNamespaceAndPath(solneo.MOD_ID, "food_speed_boost");
+    // Smaller max health changes than this are not written (below the HUD's half-heart resolution)
+    private static final float MAX_HEALTH_CHANGE_THRESHOLD = 0.5f;
+    private static final float MAX_HEALTH_CAP = 40f;
+    private static final float SPEED_BOOST_MIN_HEALTH = 20f;
+    // Old cadence: heal 5 ticks worth of regen every 5 * regenSpeedModifier ticks. Kept as the regen rate.
+    private static final int REGEN_INTERVAL_TICKS = 5;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_SPLIT_SIZE = 32; // Players per leaf task when the tick runs in parallel
+    // Activity drain: fighting lasts this long after the last hit, idle starts after this long without input
+    private static final int FIGHTING_TICKS = 100;
+    private static final long IDLE_MILLIS = 10_000L;
+    // Player saved data key for the health at logout, see logout()
+    private static final String LOGOUT_HEALTH_KEY = solneo.MOD_ID + ":logout_health";
+
+    // --- Dense Player Registry ---
+    private static ServerPlayer[] players = new ServerPlayer[INITIAL_CAPACITY];
+    private static ValheimFoodData[] foodData = new ValheimFoodData[INITIAL_CAPACITY];
+    private static long[] lastHurtTime = new long[INITIAL_CAPACITY]; // Game time of the last damage taken
+    private static float[] regenBank = new float[INITIAL_CAPACITY]; // Regen collected but not yet healed
+    private static long[] lastProcessedTime = new long[INITIAL_CAPACITY]; // Game time this player was last processed
+    private static int[] phase = new int[INITIAL_CAPACITY]; // Offset within foodTickInterval, fixed per player
+    private static int nextPhase = 0;
+    private static int count = 0;
+    private static final Map<UUID, Integer> indexOf = new HashMap<>();
+    // Last damage of online players outside the set, handed over when they become active
+    private static final Map<UUID, Long> inactiveHurtTime = new HashMap<>();
+
+    // --- Pass 1 Results ---
+    private static float[] maxHealth = new float[INITIAL_CAPACITY];
+    private static float[] regenPerTick = new float[INITIAL_CAPACITY];
+
+    // --- Applied Attribute Values ---
+    // Last values written to each player's modifiers, NaN when unknown (just added to the set)
+    private static float[] appliedMaxHealth = new float[INITIAL_CAPACITY];
+    private static float[] appliedSpeedBoost = new float[INITIAL_CAPACITY];
+    private static long attributeWrites = 0L;
+    private static long attributeWritesSkipped = 0L;
+
+    // --- Interval State (written before pass 1, read by its workers) ---
+    private static long tickCounter = 0L;
+    private static int interval = 1;
+
+    // --- Tick Cost ---
+    private static long lastTickNanos = 0L;
+    private static long averageTickNanos = 0L; // Exponential moving average over roughly 100 ticks
+
+    private FoodTickSystem() {}
+
+    // Adds or removes a player depending on their food and gamemode. Also swaps in the new entity after a respawn.
+    public static void update(ServerPlayer player) {
+        update(player, player.gameMode.getGameModeForPlayer());
+    }
+
+    // Variant for PlayerChangeGameModeEvent, which fires before the mode changes
+    public static void update(ServerPlayer player, GameType gameMode) {
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        if (gameMode.isSurvival() && player.isAlive() && !data.isEmpty()) {
+            add(player, data);
+        } else {
+            settle(player); // Also players who were never in the set, e.g. joining with an empty stomach
+            Integer index = indexOf.get(player.getUUID());
+            if (index != null) {
+                if (data.setDrainRate(1f, FoodClock.of(player.serverLevel()))) {
+                    FoodExpiryScheduler.schedule(player, data);
+                    FoodSync.markDirty(player);
+                }
+                inactiveHurtTime.put(player.getUUID(), lastHurtTime[index]);
+                removeAt(index);
+            }
+        }
+    }
+
+    // Login or respawn. Inactive players are settled by update(); active ones get their food max health now rather
+    // than on their next due tick, so the health kept aside by logout() fits again.
+    public static void join(ServerPlayer player) {
+        update(player);
+        Integer index = indexOf.get(player.getUUID());
+        if (index != null) {
+            ConfigSnapshot config = Config.snapshot();
+            maxHealth[index] = targetMaxHealth(foodData[index], config.startingHealth * 2f);
+            applyAttributes(player, index, maxHealth[index], config.speedBoost);
+        }
+
+        CompoundTag saved = player.getPersistentData();
+        if (saved.contains(LOGOUT_HEALTH_KEY, Tag.TAG_FLOAT)) {
+            float health = saved.getFloat(LOGOUT_HEALTH_KEY);
+            saved.remove(LOGOUT_HEALTH_KEY);
+            if (health > player.getHealth()) player.setHealth(health); // Clamped to the max health again
+        }
+    }
+
+    // Settles the player before they are saved. The food max health isn't saved and health is clamped to the base
+    // max health when the player loads, so the health they had is kept in their saved data and put back by join().
+    public static void logout(ServerPlayer player) {
+        player.getPersistentData().putFloat(LOGOUT_HEALTH_KEY, player.getHealth());
+        settle(player);
+        remove(player);
+    }
+
+    // Death: the entity is replaced on respawn, where join() settles the new one
+    public static void remove(ServerPlayer player) {
+        inactiveHurtTime.remove(player.getUUID());
+        Integer index = indexOf.get(player.getUUID());
+        if (index != null) removeAt(index);
+    }
+
+    public static void onHurt(ServerPlayer player) {
+        long gameTime = player.serverLevel().getGameTime();
+        Integer index = indexOf.get(player.getUUID());
+        if (index != null) lastHurtTime[index] = gameTime;
+        else inactiveHurtTime.put(player.getUUID(), gameTime);
+    }
+
+    private static void add(ServerPlayer player, ValheimFoodData data) {
+        Integer existing = indexOf.get(player.getUUID());
+        if (existing != null) {
+            if (players[existing] != player) { // New entity after leaving the End, without any of our modifiers
+                appliedMaxHealth[existing] = Float.NaN;
+                appliedSpeedBoost[existing] = Float.NaN;
+            }
+            players[existing] = player;
+            foodData[existing] = data;
+            return;
+        }
+        if (count == players.length) grow();
+        players[count] = player;
+        foodData[count] = data;
+        Long hurt = inactiveHurtTime.remove(player.getUUID());
+        lastHurtTime[count] = hurt != null ? hurt : Long.MIN_VALUE / 2;
+        regenBank[count] = 0f;
+        lastProcessedTime[count] = player.serverLevel().getGameTime();
+        phase[count] = nextPhase++ & Integer.MAX_VALUE; // Consecutive phases spread players evenly for any interval
+        appliedMaxHealth[count] = Float.NaN;
+        appliedSpeedBoost[count] = Float.NaN;
+        indexOf.put(player.getUUID(), count);
+        count++;
+    }
+
+    // Swap-remove: the last player moves into the freed index
+    private static void removeAt(int index) {
+        indexOf.remove(players[index].getUUID());
+        int last = --count;
+        if (index != last) {
+            players[index] = players[last];
+            foodData[index] = foodData[last];
+            lastHurtTime[index] = lastHurtTime[last];
+            regenBank[index] = regenBank[last];
+            lastProcessedTime[index] = lastProcessedTime[last];
+            phase[index] = phase[last];
+            appliedMaxHealth[index] = appliedMaxHealth[last];
+            appliedSpeedBoost[index] = appliedSpeedBoost[last];
+            indexOf.put(players[index].getUUID(), index);
+        }
+        players[last] = null;
+        foodData[last] = null;
+    }
+
+    // Leaves the player with the effects of an empty stomach, which then hold until they eat again
+    private static void settle(ServerPlayer player) {
+        ConfigSnapshot config = Config.snapshot();
+        float baseHealth = Math.min(MAX_HEALTH_CAP, config.startingHealth * 2f);
+        setMaxHealth(player, baseHealth);
+        setSpeedBoost(player, speedBoostFor(baseHealth, config.speedBoost));
+        player.getFoodData().setSaturation(0);
+    }
+
+    public static void tick(MinecraftServer server) {
+        long start = System.nanoTime();
+        ConfigSnapshot config = Config.snapshot();
+        float baseHealth = config.startingHealth * 2f;
+        tickCounter++;
+        interval = config.foodTickInterval;
+
+        // Pass 1: food data only, no game state is touched, so it may run on the fork-join pool
+        computeTotals(baseHealth, config.parallelFoodTick && count >= config.parallelFoodTickThreshold);
+
+        // Pass 2: attributes and healing, always on the server thread in index order
+        long gameTime = server.overworld().getGameTime();
+        int regenInterval = Math.max(1, Math.round(REGEN_INTERVAL_TICKS * config.regenSpeedModifier));
+        float regenScale = (float) REGEN_INTERVAL_TICKS / regenInterval; // Same long-run rate as the old cadence
+        for (int i = 0; i < count; i++) {
+            if (!isDue(i)) continue;
+            ServerPlayer player = players[i];
+            long elapsed = gameTime - lastProcessedTime[i];
+            lastProcessedTime[i] = gameTime;
+            if (player.isDeadOrDying()) continue;
+            player.getFoodData().setSaturation(0); // Vanilla saturation healing is replaced by food regen
+
+            applyAttributes(player, i, maxHealth[i], config.speedBoost);
+
+            ValheimFoodData data = foodData[i];
+            if (data.setDrainRate(drainRate(player, i, gameTime, config), FoodClock.of(player.serverLevel()))) {
+                FoodExpiryScheduler.schedule(player, data); // Earliest expiry moved
+                FoodSync.markDirty(player);
+            }
+
+            // Ticks since the last visit on which regen was allowed: t in (now - elapsed, now] with t - lastHurt > regenDelay
+            long regenFrom = Math.max(gameTime - elapsed, lastHurtTime[i] + config.regenDelay);
+            long regenTicks = Math.min(elapsed, gameTime - regenFrom);
+            if (regenTicks > 0) {
+                regen(player, i, regenPerTick[i] * regenScale * regenTicks, config.healQuantum);
+            }
+        }
+
+        lastTickNanos = System.nanoTime() - start;
+        averageTickNanos += (lastTickNanos - averageTickNanos) / 100;
+    }
+
+    private static float drainRate(ServerPlayer player, int index, long gameTime, ConfigSnapshot config) {
+        boolean fighting = gameTime - lastHurtTime[index] < FIGHTING_TICKS
+                || (player.getLastHurtMob() != null && player.tickCount - player.getLastHurtMobTimestamp() < FIGHTING_TICKS);
+        if (fighting) return config.drainFighting;
+        if (player.isSwimming() || player.isUnderWater()) return config.drainSwimming;
+        if (player.isSprinting()) return config.drainSprinting;
+        if (Util.getMillis() - player.getLastActionTime() > IDLE_MILLIS) return config.drainIdle;
+        return 1f;
+    }
+
+    private static boolean isDue(int index) {
+        return interval == 1 || (tickCounter + phase[index]) % interval == 0;
+    }
+
+    // Pass 1 for the players due this tick. Package-private for FoodTickPassBenchmark.
+    static void computeTotals(float baseHealth, boolean parallel) {
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new ComputeTask(0, count, baseHealth, splitSize(count)));
+        } else {
+            compute(0, count, baseHealth);
+        }
+    }
+
+    // Fills the pass 1 result arrays for [from, to). Each index only touches its own food data and result slots.
+    private static void compute(int from, int to, float baseHealth) {
+        for (int i = from; i < to; i++) {
+            if (!isDue(i)) continue;
+            ValheimFoodData data = foodData[i];
+            maxHealth[i] = targetMaxHealth(data, baseHealth);
+            regenPerTick[i] = data.getRegenPerTick();
+        }
+    }
+
+    private static float targetMaxHealth(ValheimFoodData data, float baseHealth) {
+        return Math.min(MAX_HEALTH_CAP, baseHealth + data.getTotalHealthBonus());
+    }
+
+    // About four leaf tasks per worker, but never tiny ones
+    private static int splitSize(int players) {
+        return Math.max(MIN_SPLIT_SIZE, players / (ForkJoinPool.getCommonPoolParallelism() * 4));
+    }
+
+    private static final class ComputeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final float baseHealth;
+        private final int splitSize;
+
+        ComputeTask(int from, int to, float baseHealth, int splitSize) {
+            this.from = from;
+            this.to = to;
+            this.baseHealth = baseHealth;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > splitSize) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ComputeTask(from, mid, baseHealth, splitSize), new ComputeTask(mid, to, baseHealth, splitSize));
+                return;
+            }
+            FoodTickSystem.compute(from, to, baseHealth);
+        }
+    }
+
+    // Collects regen every tick and calls heal() once a quantum has built up, or early when it would fill the
+    // health bar anyway. heal() fires LivingHealEvent for every listening mod, so tiny per-tick heals are costly.
+    private static void regen(ServerPlayer player, int index, float amount, float quantum) {
+        float health = player.getHealth();
+        float max = player.getMaxHealth();
+        if (health >= max) {
+            regenBank[index] = 0f; // A full bar wastes regen, as heal() did before
+            return;
+        }
+        float bank = regenBank[index] + amount;
+        if (bank > 0f && (bank >= quantum || health + bank >= max)) {
+            player.heal(bank);
+            bank = 0f;
+        }
+        regenBank[index] = bank;
+    }
+
+    // Touches the modifiers only when the value moved by at least the threshold or crossed the speed boost boundary.
+    // The old tick set the max health base value and looked up the speed modifier every tick.
+    private static void applyAttributes(ServerPlayer player, int index, float targetHealth, float speedBoost) {
+        float applied = appliedMaxHealth[index];
+        boolean crossed = (applied >= SPEED_BOOST_MIN_HEALTH) != (targetHealth >= SPEED_BOOST_MIN_HEALTH);
+        if (crossed || !(Math.abs(targetHealth - applied) < MAX_HEALTH_CHANGE_THRESHOLD)) { // NaN always writes
+            setMaxHealth(player, targetHealth);
+            appliedMaxHealth[index] = targetHealth;
+        } else {
+            attributeWritesSkipped++;
+        }
+
+        float speed = speedBoostFor(targetHealth, speedBoost);
+        if (speed != appliedSpeedBoost[index]) {
+            setSpeedBoost(player, speed);
+            appliedSpeedBoost[index] = speed;
+        } else {
+            attributeWritesSkipped++;
+        }
+    }
+
+    private static float speedBoostFor(float maxHealth, float speedBoost) {
+        return speedBoost > 0.01f && maxHealth >= SPEED_BOOST_MIN_HEALTH ? speedBoost : 0f;
+    }
+
+    // Food health is a transient modifier on top of the base value. It isn't saved with the player, so stale bonus
+    // hearts can't outlive the food, a config change or the mod; join() puts it back after loading.
+    private static void setMaxHealth(ServerPlayer player, float maxHealth) {
+        AttributeInstance health = player.getAttribute(Attributes.MAX_HEALTH);
+        if (health == null) return;
+        health.addOrUpdateTransientModifier(new AttributeModifier(MAX_HEALTH_ID, maxHealth - health.getBaseValue(),
+                AttributeModifier.Operation.ADD_VALUE));
+        attributeWrites++;
+    }
+
+    private static void setSpeedBoost(ServerPlayer player, float amount) {
+        AttributeInstance speed = player.getAttribute(Attributes.MOVEMENT_SPEED);
+        if (speed == null) return;
+        if (amount > 0f) {
+            speed.addOrUpdateTransientModifier(new AttributeModifier(SPEED_BOOST_ID, amount, AttributeModifier.Operation.ADD_MULTIPLIED_BASE));
+        } else if (speed.hasModifier(SPEED_BOOST_ID)) {
+            speed.removeModifier(SPEED_BOOST_ID);
+        } else {
+            return;
+        }
+        attributeWrites++;
+    }
+
+    private static void grow() {
+        int capacity = players.length * 2;
+        players = Arrays.copyOf(players, capacity);
+        foodData = Arrays.copyOf(foodData, capacity);
+        lastHurtTime = Arrays.copyOf(lastHurtTime, capacity);
+        regenBank = Arrays.copyOf(regenBank, capacity);
+        lastProcessedTime = Arrays.copyOf(lastProcessedTime, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        regenPerTick = Arrays.copyOf(regenPerTick, capacity);
+        appliedMaxHealth = Arrays.copyOf(appliedMaxHealth, capacity);
+        appliedSpeedBoost = Arrays.copyOf(appliedSpeedBoost, capacity);
+    }
+
+    public static int size() {
+        return count;
+    }
+
+    public static long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public static long getAverageTickNanos() {
+        return averageTickNanos;
+    }
+
+    // Modifier writes made, and per-tick attribute updates skipped because nothing changed
+    public static long getAttributeWrites() {
+        return attributeWrites;
+    }
+
+    public static long getAttributeWritesSkipped() {
+        return attributeWritesSkipped;
+    }
+
+    // Benchmark only: puts food data into the set without a player, for pass 1 alone (see computeTotals)
+    static void addFoodDataOnly(ValheimFoodData data) {
+        if (count == players.length) grow();
+        foodData[count] = data;
+        phase[count] = nextPhase++ & Integer.MAX_VALUE;
+        count++;
+    }
+
+    public static void clear() {
+        Arrays.fill(players, null);
+        Arrays.fill(foodData, null);
+        count = 0;
+        indexOf.clear();
+        inactiveHurtTime.clear();
+    }
+}
@@ -1,293 +1,597 @@
 package zyon900.solneo.data;
 
 import zyon900.solneo.config.Config; // Import new Config class
+import zyon900.solneo.config.ConfigSnapshot;
+import zyon900.solneo.config.FoodClassification;
 import zyon900.solneo.solneo; // Import main mod class
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
-import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.VarInt;
 import net.minecraft.network.codec.StreamCodec;
-import net.minecraft.network.syncher.EntityDataSerializer;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.Items;
-import net.minecraft.world.item.UseAnim;
+import io.netty.handler.codec.DecoderException;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ValheimFoodData {
 
     private static final int DEFAULT_MAX_SLOTS = 3;
 
-    // --- EntityDataSerializer ---
-    public static final EntityDataSerializer<ValheimFoodData> FOOD_DATA_SERIALIZER = new EntityDataSerializer<>() {
-        @Override // copy IS required
-        public ValheimFoodData copy(ValheimFoodData value) {
-            var ret = new ValheimFoodData();
-            ret.MaxItemSlots = value.MaxItemSlots;
-            // Ensure EatenFoodItem copy constructor does a proper deep copy if needed
-            ret.ItemEntries = value.ItemEntries.stream().map(EatenFoodItem::new).collect(Collectors.toCollection(ArrayList::new));
-            if (value.DrinkSlot != null)
-                ret.DrinkSlot = new EatenFoodItem(value.DrinkSlot);
-            ret.loadConfigValues(); // Load config for the copy
-            return ret;
-        }
-
-        @Override // streamCodec IS required
-        public StreamCodec<? super FriendlyByteBuf, ValheimFoodData> codec() {
-            return ByteBufCodecs.TRUSTED_COMPOUND_TAG.map(
-                    ValheimFoodData::read,      // Method reference to static read(CompoundTag)
-                    (foodData) -> foodData.save(new CompoundTag()) // Lambda calling instance save(CompoundTag)
-            );
-        }
-    };
+    // --- Slot Layout ---
+    // Index 0 of the slot arrays is reserved for the drink, food slots follow from index 1
+    private static final int DRINK_INDEX = 0;
+    private static final int FIRST_FOOD_INDEX = 1;
+    private static final int EMPTY = -1; // Raw item ids start at 0 (air)
+
+    // Run with -Dsolneo.debugAggregates=true to cross-check the cached totals against a full recompute
+    private static final boolean DEBUG_AGGREGATES = Boolean.getBoolean("solneo.debugAggregates");
+
+    // --- Network Codec ---
+    // Version byte, max slots, drink (raw id + 1, 0 = none) and its ticks, food count, then raw id and ticks per food.
+    // All varints: a full stomach is about a dozen bytes instead of an NBT compound with string keys and item ids.
+    private static final byte NETWORK_VERSION = 1;
+    // Decoded data is only read once, copied into the player's attachment on the main thread, and then handed back
+    // with releaseDecoded(). Decoding runs on the network thread and a burst can decode several packets before the
+    // first is handled, so the spare is taken out while in use instead of one holder being shared.
+    private static final AtomicReference<ValheimFoodData> decodeSpare = new AtomicReference<>();
+    public static final StreamCodec<FriendlyByteBuf, ValheimFoodData> STREAM_CODEC = StreamCodec.ofMember(
+            ValheimFoodData::write,
+            buf -> {
+                ValheimFoodData data = decodeSpare.getAndSet(null);
+                if (data == null) {
+                    data = new ValheimFoodData(DEFAULT_MAX_SLOTS);
+                    data.decoded = true;
+                }
+                data.readFrom(buf);
+                return data;
+            });
 
     // --- Class Fields ---
-    public List<EatenFoodItem> ItemEntries = new ArrayList<>();
-    public EatenFoodItem DrinkSlot;
-    public int MaxItemSlots = DEFAULT_MAX_SLOTS;
+    // Struct-of-arrays slot storage: raw item ids (EMPTY if unused) and absolute expiry game times, drink first.
+    // Food slots are packed at the front and kept sorted by expiry, soonest first.
+    private int[] itemIds;
+    private long[] expiresAt;
+    private int foodCount = 0;
+    private int maxItemSlots = DEFAULT_MAX_SLOTS;
+
+    // --- Clock ---
+    // Expiry of the soonest slot (food or drink), so tick() is a single compare until something runs out
+    private long earliestExpiry = Long.MAX_VALUE;
+    // Expiries are in the time of the food clock of the player's level (game time plus skipped nights).
+    // Null for data read from NBT: expiries are then relative to time 0 and get rebased on the first clock sighting.
+    private FoodClock clock = null;
+    private int skipCursor = 0; // Night skips of the clock already applied to the slots
+    // Last food clock time seen by tick/eatItem/save. Remaining time is measured against it.
+    private long gameTime = 0L;
+
+    // Nights skipped while a food is active never take it below this many ticks (same as the old ServerLevelMixin)
+    private static final int NIGHT_SKIP_FLOOR_TICKS = 1200;
+    // A food with less than this much duration left (at the normal drain rate) may always be eaten again
+    private static final int EAT_AGAIN_ANYTIME_TICKS = 1200;
+
+    // --- Drain Rate ---
+    // Food duration used up per clock tick (activity multiplier). Constant between activity changes, so expiries stay
+    // plain clock times and are only rescaled around the current time when the rate changes (setDrainRate).
+    private float drainRate = 1f;
+
+    // --- Cached Aggregates ---
+    // Recomputed whenever the slots change, or lazily when a new config snapshot was published since
+    private float cachedHearts = 0f;
+    private float cachedRegen = 0f;
+    private float cachedDrinkMultiplier = 1f;
+    private int aggregateVersion = -1; // Snapshot version the cache was computed with, -1 = never
+
+    private boolean decoded = false; // Created by STREAM_CODEC, may go back to it through releaseDecoded
 
     // Constructor
     public ValheimFoodData() {
+        allocate(DEFAULT_MAX_SLOTS);
         loadConfigValues();
     }
 
+    // No config access, for decoding off the server thread (and for tests)
+    ValheimFoodData(int maxSlots) {
+        maxItemSlots = maxSlots;
+        allocate(maxSlots);
+    }
+
     // Load config values (call this when instance created or config reloaded)
     public void loadConfigValues() {
-        if (Config.COMMON != null && Config.COMMON.maxSlots != null) {
-            try {
-                this.MaxItemSlots = Config.COMMON.maxSlots.get();
-            } catch (Exception e) { // Catch potential issues during early startup
-                solneo.LOGGER.error("Failed to get maxSlots config value, using default.", e);
-                this.MaxItemSlots = DEFAULT_MAX_SLOTS;
-            }
+        setMaxItemSlots(Config.snapshot().maxSlots); // Spec defaults until the config file is loaded
+    }
+
+    public int getMaxItemSlots() {
+        return maxItemSlots;
+    }
+
+    // Lowering the limit keeps foods that are already active, it only blocks new ones
+    public void setMaxItemSlots(int maxSlots) {
+        this.maxItemSlots = maxSlots;
+        int needed = FIRST_FOOD_INDEX + Math.max(maxSlots, foodCount);
+        if (itemIds.length < needed) {
+            int oldLength = itemIds.length;
+            itemIds = Arrays.copyOf(itemIds, needed);
+            expiresAt = Arrays.copyOf(expiresAt, needed);
+            Arrays.fill(itemIds, oldLength, needed, EMPTY);
+        }
+    }
+
+    private void allocate(int maxSlots) {
+        itemIds = new int[FIRST_FOOD_INDEX + maxSlots];
+        expiresAt = new long[itemIds.length];
+        Arrays.fill(itemIds, EMPTY);
+    }
+
+    // Independent copy, e.g. to hand the current state to a network thread
+    public ValheimFoodData copy() {
+        ValheimFoodData copy = new ValheimFoodData(maxItemSlots);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    // Replaces this instance's slots with a copy of another's, reusing the arrays when they fit
+    public void copyFrom(ValheimFoodData other) {
+        if (itemIds.length < other.itemIds.length) {
+            allocate(other.itemIds.length - FIRST_FOOD_INDEX);
         } else {
-            solneo.LOGGER.warn("Config.COMMON.maxSlots not available, using default max slots ({}).", DEFAULT_MAX_SLOTS);
-            this.MaxItemSlots = DEFAULT_MAX_SLOTS;
+            Arrays.fill(itemIds, EMPTY);
+            Arrays.fill(expiresAt, 0L);
         }
+        System.arraycopy(other.itemIds, 0, itemIds, 0, other.itemIds.length);
+        System.arraycopy(other.expiresAt, 0, expiresAt, 0, other.expiresAt.length);
+        this.foodCount = other.foodCount;
+        this.maxItemSlots = other.maxItemSlots;
+        this.earliestExpiry = other.earliestExpiry;
+        this.gameTime = other.gameTime;
+        this.clock = other.clock;
+        this.skipCursor = other.skipCursor;
+        this.drainRate = other.drainRate;
+        updateAggregates();
+    }
+
+    // --- Read View ---
+    // Indexed accessors so callers can walk the slots without iterators or slot objects.
+    // Food slot indices run from 0 to getFoodCount() - 1, soonest to expire first.
+    public int getFoodCount() {
+        return foodCount;
+    }
+
+    public int getFoodItemId(int slot) {
+        return itemIds[FIRST_FOOD_INDEX + slot];
+    }
+
+    public Item getFoodItem(int slot) {
+        return BuiltInRegistries.ITEM.byId(itemIds[FIRST_FOOD_INDEX + slot]);
+    }
+
+    // Remaining ticks as of the last game time this data was ticked with
+    public int getFoodTicksLeft(int slot) {
+        return remaining(FIRST_FOOD_INDEX + slot);
+    }
+
+    // Game time at which the next slot runs out, Long.MAX_VALUE when empty
+    public long getEarliestExpiry() {
+        return earliestExpiry;
+    }
+
+    public long getFoodExpiry(int slot) {
+        return expiresAt[FIRST_FOOD_INDEX + slot];
+    }
+
+    public boolean isEmpty() {
+        return foodCount == 0 && !hasDrink();
+    }
+
+    public float getDrainRate() {
+        return drainRate;
+    }
+
+    public boolean hasDrink() {
+        return itemIds[DRINK_INDEX] != EMPTY;
+    }
+
+    // Returns null if the drink slot is empty
+    public Item getDrinkItem() {
+        return hasDrink() ? BuiltInRegistries.ITEM.byId(itemIds[DRINK_INDEX]) : null;
+    }
+
+    // Raw item id in the drink slot, -1 if empty
+    public int getDrinkItemId() {
+        return itemIds[DRINK_INDEX];
+    }
+
+    public int getDrinkTicksLeft() {
+        return hasDrink() ? remaining(DRINK_INDEX) : 0;
+    }
+
+    // Returns the food slot index holding this raw item id, or -1 (drinks are not searched)
+    private int indexOfFood(int rawId) {
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX; i < end; i++) {
+            if (itemIds[i] == rawId) return i - FIRST_FOOD_INDEX;
+        }
+        return -1;
     }
 
     // --- Methods ---
-    public void eatItem(Item food) {
+    // clock is the food clock of the player's current level, which also drives tick()
+    // Returns true if the slots changed (something was added, refreshed, replaced or cleared)
+    public boolean eatItem(Item food, FoodClock clock) {
+        syncClock(clock);
         if (food == Items.ROTTEN_FLESH) { // Special case: Clear food
             clear();
             solneo.LOGGER.debug("Player ate rotten flesh, clearing food data.");
-            return;
+            return true;
         }
 
         // Use new Config class to get food properties
-        Config.FoodConfig foodConfig = Config.getFoodConfig(food);
+        int rawId = BuiltInRegistries.ITEM.getId(food);
+        Config.FoodConfig foodConfig = Config.getFoodConfig(rawId);
         if (foodConfig == null) {
             solneo.LOGGER.debug("Tried to eat item with no food config: {}", food);
-            return; // Item isn't configured as food by this mod
+            return false; // Item isn't configured as food by this mod
         }
 
-        boolean isDrink = food.getDefaultInstance().getUseAnimation() == UseAnim.DRINK;
+        boolean isDrink = FoodClassification.isDrink(rawId);
 
         if (isDrink) {
-            if (DrinkSlot != null && !DrinkSlot.canEatEarly()) {
+            if (hasDrink() && !canEatEarly(DRINK_INDEX)) {
                 solneo.LOGGER.debug("Cannot drink {}, drink slot busy.", food);
-                return;
-            }
-            if (DrinkSlot == null) {
-                DrinkSlot = new EatenFoodItem(food, foodConfig.getTime());
-                solneo.LOGGER.debug("Added {} to drink slot.", food);
-            } else {
-                DrinkSlot.item = food;
-                DrinkSlot.ticksLeft = foodConfig.getTime();
-                solneo.LOGGER.debug("Refreshed {} in drink slot.", food);
+                return false;
             }
-            return;
+            solneo.LOGGER.debug(hasDrink() ? "Refreshed {} in drink slot." : "Added {} to drink slot.", food);
+            itemIds[DRINK_INDEX] = rawId;
+            expiresAt[DRINK_INDEX] = expiryFor(foodConfig.getTime());
+            updateEarliestExpiry();
+            updateAggregates();
+            return true;
         }
 
         // Handle non-drinks
-        EatenFoodItem existing = getEatenFood(food);
-        if (existing != null) {
-            if (!existing.canEatEarly()) {
+        int existing = indexOfFood(rawId);
+        if (existing >= 0) {
+            int index = FIRST_FOOD_INDEX + existing;
+            if (!canEatEarly(index)) {
                 solneo.LOGGER.debug("Cannot eat {}, already active and not ready.", food);
-                return;
+                return false;
             }
-            existing.ticksLeft = foodConfig.getTime();
-            solneo.LOGGER.debug("Refreshed existing food {}.", food);
-            return;
+            expiresAt[index] = expiryFor(foodConfig.getTime());
+            sortFood(); // Keep sorted
+            solneo.LOGGER.debug("Refreshed existing food {}.", food); // Same item, totals unchanged
+            return true;
         }
 
-        if (ItemEntries.size() < this.MaxItemSlots) {
-            ItemEntries.add(new EatenFoodItem(food, foodConfig.getTime()));
-            solneo.LOGGER.debug("Added new food {}. Slots: {}/{}", food, ItemEntries.size(), this.MaxItemSlots);
+        if (foodCount < this.maxItemSlots) {
+            int index = FIRST_FOOD_INDEX + foodCount++;
+            itemIds[index] = rawId;
+            expiresAt[index] = expiryFor(foodConfig.getTime());
+            solneo.LOGGER.debug("Added new food {}. Slots: {}/{}", food, foodCount, this.maxItemSlots);
             sortFood(); // Keep sorted
-            return;
+            updateAggregates();
+            return true;
         }
 
         // Try to replace an item that can be eaten early
-        for (int i = 0; i < ItemEntries.size(); i++) {
-            EatenFoodItem item = ItemEntries.get(i);
-            if (item.canEatEarly()) {
-                solneo.LOGGER.debug("Replacing food {} with {}.", item.item, food);
-                item.item = food;
-                item.ticksLeft = foodConfig.getTime();
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX; i < end; i++) {
+            if (canEatEarly(i)) {
+                solneo.LOGGER.debug("Replacing food {} with {}.", BuiltInRegistries.ITEM.byId(itemIds[i]), food);
+                itemIds[i] = rawId;
+                expiresAt[i] = expiryFor(foodConfig.getTime());
                 sortFood(); // Keep sorted
-                return;
+                updateAggregates();
+                return true;
             }
         }
 
-        solneo.LOGGER.debug("Cannot eat {}, all {} slots full and none ready.", food, this.MaxItemSlots);
+        solneo.LOGGER.debug("Cannot eat {}, all {} slots full and none ready.", food, this.maxItemSlots);
+        return false;
     }
 
-    public boolean canEat(Item food) {
-        if (food == Items.ROTTEN_FLESH) return true; // Always allow rotten flesh
+    // Whether the item in a slot (array index, drink included) may be eaten again before it runs out
+    private boolean canEatEarly(int index) {
+        int left = remainingDuration(index); // Duration, so the rules don't depend on the current activity
+        if (left < EAT_AGAIN_ANYTIME_TICKS)
+            return true;
 
-        // Use new Config class to get food properties
-        Config.FoodConfig foodConfig = Config.getFoodConfig(food);
-        if (foodConfig == null) {
-            return false; // Cannot eat if not configured by this mod
-        }
+        Config.FoodConfig config = Config.getFoodConfig(itemIds[index]);
+        if (config == null || config.getTime() <= 0)
+            return false; // Cannot eat early if not configured or time is zero/negative
 
-        boolean isDrink = food.getDefaultInstance().getUseAnimation() == UseAnim.DRINK;
-        if (isDrink) {
-            return DrinkSlot == null || DrinkSlot.canEatEarly();
-        }
+        return ((float) left / config.getTime()) < Config.snapshot().eatAgainPercentage;
+    }
+
+    public void clear() {
+        Arrays.fill(itemIds, EMPTY);
+        Arrays.fill(expiresAt, 0L);
+        foodCount = 0;
+        earliestExpiry = Long.MAX_VALUE;
+        updateAggregates();
+    }
 
-        EatenFoodItem existing = getEatenFood(food);
-        if (existing != null) {
-            return existing.canEatEarly(); // Can re-eat if ready
+    // O(1) unless a slot has reached its expiry time. Returns true if anything expired.
+    public boolean tick(FoodClock clock) {
+        syncClock(clock);
+        if (gameTime < earliestExpiry) return false;
+
+        // Foods are sorted by expiry, so the expired ones are a prefix; shift the survivors down
+        int end = FIRST_FOOD_INDEX + foodCount;
+        int expired = 0;
+        while (FIRST_FOOD_INDEX + expired < end && expiresAt[FIRST_FOOD_INDEX + expired] <= gameTime) expired++;
+        if (expired > 0) {
+            System.arraycopy(itemIds, FIRST_FOOD_INDEX + expired, itemIds, FIRST_FOOD_INDEX, foodCount - expired);
+            System.arraycopy(expiresAt, FIRST_FOOD_INDEX + expired, expiresAt, FIRST_FOOD_INDEX, foodCount - expired);
+            Arrays.fill(itemIds, end - expired, end, EMPTY);
+            Arrays.fill(expiresAt, end - expired, end, 0L);
+            foodCount -= expired;
         }
 
-        if (ItemEntries.size() < this.MaxItemSlots) {
-            return true; // Can eat if slot available
+        if (hasDrink() && expiresAt[DRINK_INDEX] <= gameTime) {
+            itemIds[DRINK_INDEX] = EMPTY;
+            expiresAt[DRINK_INDEX] = 0L;
         }
 
-        // Can eat if any existing item can be replaced
-        return ItemEntries.stream().anyMatch(EatenFoodItem::canEatEarly);
+        updateEarliestExpiry();
+        updateAggregates(); // Only reached when something expired
+        return true;
     }
 
-    public EatenFoodItem getEatenFood(Item food) {
-        for (EatenFoodItem item : ItemEntries) {
-            if (item.item == food) {
-                return item;
+    // Brings the slots up to date with a level's food clock. Night skips are applied here, lazily, so a skip
+    // costs nothing until the data is next read. Data loaded from NBT or moved from another level keeps its
+    // remaining ticks and is rebased onto the new clock.
+    public void syncClock(FoodClock target) {
+        if (clock != target) {
+            if (clock != null) {
+                applyNightSkips();
+                gameTime = clock.now();
             }
+            long now = target.now();
+            shiftExpiries(now - gameTime);
+            clock = target;
+            skipCursor = target.skipCount(); // Skips before arriving don't apply
+            gameTime = now;
+            return;
         }
-        return null;
+        applyNightSkips();
+        gameTime = clock.now();
     }
 
-    public void clear() {
-        ItemEntries.clear();
-        DrinkSlot = null;
-    }
-
-    public void tick() {
-        boolean changed = false;
-        // Tick down regular food items
-        var iterator = ItemEntries.iterator();
-        while (iterator.hasNext()) {
-            var item = iterator.next();
-            item.ticksLeft--;
-            if (item.ticksLeft <= 0) {
-                iterator.remove();
-                changed = true;
-            }
+    private void shiftExpiries(long shift) {
+        for (int i = 0; i < expiresAt.length; i++) {
+            if (itemIds[i] != EMPTY) expiresAt[i] += shift;
         }
+        if (earliestExpiry != Long.MAX_VALUE) earliestExpiry += shift;
+    }
 
-        // Tick down drink slot
-        if (DrinkSlot != null) {
-            DrinkSlot.ticksLeft--;
-            if (DrinkSlot.ticksLeft <= 0) {
-                DrinkSlot = null;
-                changed = true;
-            }
-        }
+    // --- Client Mirror ---
+    // Synced copies have no food clock and count down on the client against the level's game time instead.
+    // anchorAt(t) keeps the remaining ticks and places them on that timeline as of game time t; advanceTo moves along it.
+    public void anchorAt(long time) {
+        shiftExpiries(time - gameTime);
+        clock = null;
+        skipCursor = 0;
+        gameTime = time;
+    }
 
-        if (changed) {
-            sortFood(); // Sort if items were removed
+    public void advanceTo(long time) {
+        if (clock == null) gameTime = time; // Server data follows its food clock
+    }
+
+    // Delta updates write slots directly, between begin and end. Slot 0 is the drink, foods follow in expiry order;
+    // expiries are level game times. A full update starts from an empty mirror.
+    public void beginMirrorUpdate(boolean full, int maxSlots, int foodCount) {
+        clock = null;
+        skipCursor = 0;
+        drainRate = 1f;
+        if (full) {
+            Arrays.fill(itemIds, EMPTY);
+            Arrays.fill(expiresAt, 0L);
+            this.foodCount = 0;
         }
+        setMaxItemSlots(Math.max(maxSlots, foodCount)); // Grows the arrays to fit every slot
+        maxItemSlots = maxSlots;
     }
 
-    private void sortFood() {
-        ItemEntries.sort(Comparator.comparingInt(a -> a.ticksLeft));
+    public void setMirrorSlot(int slot, int rawId, long expiry) {
+        itemIds[slot] = rawId;
+        expiresAt[slot] = rawId != EMPTY ? expiry : 0L;
     }
 
-    // Calculates total 'hearts' value based on active foods and drink bonus
-    public float getTotalHealthBonus() {
-        float totalHearts = 0f;
-        for (EatenFoodItem item : ItemEntries) {
-            Config.FoodConfig config = Config.getFoodConfig(item.item);
-            if (config != null) {
-                totalHearts += config.getHearts();
+    // Slots past the new food count are dropped, the rest is assumed to be in order already
+    public void endMirrorUpdate(int foodCount) {
+        Arrays.fill(itemIds, FIRST_FOOD_INDEX + foodCount, itemIds.length, EMPTY);
+        Arrays.fill(expiresAt, FIRST_FOOD_INDEX + foodCount, expiresAt.length, 0L);
+        this.foodCount = foodCount;
+        updateEarliestExpiry();
+        aggregateVersion = -1; // Recomputed lazily by ensureAggregates
+    }
+
+    // First skip of the given clock this data still has to apply, Integer.MAX_VALUE if it is attached to another.
+    // Empty data has nothing to apply, so it is moved past every skip logged so far.
+    int firstPendingSkip(FoodClock target) {
+        if (clock != target) return Integer.MAX_VALUE;
+        if (isEmpty()) skipCursor = target.skipCount();
+        return skipCursor;
+    }
+
+    // For each skip in order: foods still active when it started lose the skipped time, but keep at least
+    // NIGHT_SKIP_FLOOR_TICKS. In clock time that is expiry = max(expiry, skipEnd + floor).
+    private void applyNightSkips() {
+        int skips = clock.skipCount();
+        if (skipCursor >= skips) return;
+        for (; skipCursor < skips; skipCursor++) {
+            long start = clock.skipStart(skipCursor);
+            long floor = clock.skipEnd(skipCursor) + NIGHT_SKIP_FLOOR_TICKS;
+            for (int i = 0; i < expiresAt.length; i++) {
+                if (itemIds[i] != EMPTY && expiresAt[i] > start && expiresAt[i] < floor) expiresAt[i] = floor;
             }
         }
+        sortFood(); // Also refreshes the earliest expiry
+    }
 
-        float drinkBonusMult = 1.0f;
-        if (DrinkSlot != null) {
-            Config.FoodConfig drinkConfig = Config.getFoodConfig(DrinkSlot.item);
-            if (drinkConfig != null) {
-                totalHearts += drinkConfig.getHearts();
+    // Switches to a new drain rate from the current clock time on. Each remaining duration is scaled by old / new rate;
+    // the scale is the same for every slot, so their order is kept. Returns true if any expiry moved.
+    public boolean setDrainRate(float rate, FoodClock clock) {
+        if (rate == drainRate) return false;
+        syncClock(clock);
+        double scale = (double) drainRate / rate;
+        drainRate = rate;
+        if (isEmpty()) return false;
+        for (int i = 0; i < expiresAt.length; i++) {
+            if (itemIds[i] != EMPTY && expiresAt[i] > gameTime) {
+                expiresAt[i] = gameTime + Math.max(1L, Math.round((expiresAt[i] - gameTime) * scale));
             }
-            if (Config.COMMON != null && Config.COMMON.drinkSlotFoodEffectivenessBonus != null) {
-                try {
-                    drinkBonusMult += Config.COMMON.drinkSlotFoodEffectivenessBonus.get().floatValue();
-                } catch (Exception e) {solneo.LOGGER.warn("Failed to get drink bonus config");}
+        }
+        updateEarliestExpiry();
+        return true;
+    }
+
+    public FoodClock getClock() {
+        return clock;
+    }
+
+    private int remaining(int index) {
+        return (int) Math.max(0L, Math.min(Integer.MAX_VALUE, expiresAt[index] - gameTime));
+    }
+
+    // Remaining food duration at the normal rate, the unit of FoodConfig times and saved data
+    private int remainingDuration(int index) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(remaining(index) * (double) drainRate));
+    }
+
+    private long expiryFor(int duration) {
+        return gameTime + Math.round(duration / (double) drainRate);
+    }
+
+    private void updateEarliestExpiry() {
+        long earliest = foodCount > 0 ? expiresAt[FIRST_FOOD_INDEX] : Long.MAX_VALUE; // Foods are sorted
+        if (hasDrink()) earliest = Math.min(earliest, expiresAt[DRINK_INDEX]);
+        earliestExpiry = earliest;
+    }
+
+    // Insertion sort by expiry; there are only a handful of slots. Also refreshes the earliest expiry.
+    private void sortFood() {
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX + 1; i < end; i++) {
+            int id = itemIds[i];
+            long expiry = expiresAt[i];
+            int j = i - 1;
+            while (j >= FIRST_FOOD_INDEX && expiresAt[j] > expiry) {
+                itemIds[j + 1] = itemIds[j];
+                expiresAt[j + 1] = expiresAt[j];
+                j--;
             }
+            itemIds[j + 1] = id;
+            expiresAt[j + 1] = expiry;
         }
+        updateEarliestExpiry();
+    }
 
-        return totalHearts * drinkBonusMult;
+    // --- Aggregates ---
+    // Total 'hearts' value of active foods and drink, with the drink bonus applied
+    public float getTotalHealthBonus() {
+        ensureAggregates();
+        return cachedHearts;
     }
 
-    // Calculates total regen per tick based on active foods and drink bonus
+    // Total regen per tick of active foods and drink, with the drink bonus applied to the sum
     public float getRegenPerTick() {
-        float totalRegen = 0f; // Start with 0 base regen from food
-        for (EatenFoodItem item : ItemEntries) {
-            Config.FoodConfig config = Config.getFoodConfig(item.item);
-            if (config != null) {
-                totalRegen += config.getHealthRegenPerTick();
-            }
+        ensureAggregates();
+        return cachedRegen;
+    }
+
+    // 1 + drinkSlotFoodEffectivenessBonus while something is in the drink slot, otherwise 1
+    public float getDrinkBonusMultiplier() {
+        ensureAggregates();
+        return cachedDrinkMultiplier;
+    }
+
+    // Picks up config and food table reloads; otherwise just a version compare
+    private void ensureAggregates() {
+        ConfigSnapshot config = Config.snapshot();
+        if (config.version != aggregateVersion) {
+            computeAggregates(config);
+        } else if (DEBUG_AGGREGATES) {
+            verifyAggregates(config);
         }
+    }
 
-        float drinkBonusMult = 1.0f;
-        if (DrinkSlot != null) {
-            Config.FoodConfig drinkConfig = Config.getFoodConfig(DrinkSlot.item);
-            if (drinkConfig != null) {
-                totalRegen += drinkConfig.getHealthRegenPerTick();
+    private void updateAggregates() {
+        computeAggregates(Config.snapshot());
+    }
+
+    private void computeAggregates(ConfigSnapshot config) {
+        float hearts = 0f;
+        float regen = 0f;
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX; i < end; i++) {
+            Config.FoodConfig food = config.foods.get(itemIds[i]);
+            if (food != null) {
+                hearts += food.getHearts();
+                regen += food.getHealthRegenPerTick();
             }
-            if (Config.COMMON != null && Config.COMMON.drinkSlotFoodEffectivenessBonus != null) {
-                try {
-                    drinkBonusMult += Config.COMMON.drinkSlotFoodEffectivenessBonus.get().floatValue();
-                } catch (Exception e) {solneo.LOGGER.warn("Failed to get drink bonus config");}
+        }
+
+        float drinkMultiplier = 1.0f;
+        if (hasDrink()) {
+            Config.FoodConfig drink = config.foods.get(itemIds[DRINK_INDEX]);
+            if (drink != null) {
+                hearts += drink.getHearts();
+                regen += drink.getHealthRegenPerTick();
             }
+            drinkMultiplier += config.drinkSlotFoodEffectivenessBonus;
+        }
+
+        cachedHearts = hearts * drinkMultiplier;
+        cachedRegen = regen * drinkMultiplier;
+        cachedDrinkMultiplier = drinkMultiplier;
+        aggregateVersion = config.version;
+    }
+
+    // Debug only: recomputes from scratch and reports any drift from the cached values
+    private void verifyAggregates(ConfigSnapshot config) {
+        float hearts = cachedHearts;
+        float regen = cachedRegen;
+        float drinkMultiplier = cachedDrinkMultiplier;
+        computeAggregates(config);
+        if (hearts != cachedHearts || regen != cachedRegen || drinkMultiplier != cachedDrinkMultiplier) {
+            solneo.LOGGER.error("Stale food aggregates: cached hearts={} regen={} drink={}, recomputed hearts={} regen={} drink={}",
+                    hearts, regen, drinkMultiplier, cachedHearts, cachedRegen, cachedDrinkMultiplier);
         }
-        // Apply bonus multiplier to the SUM of regen values
-        return totalRegen * drinkBonusMult;
     }
 
 
     // --- NBT Serialization ---
     public CompoundTag save(CompoundTag tag) {
-        tag.putInt("MaxSlots", this.MaxItemSlots); // Save potentially configured value
-        tag.putInt("Count", ItemEntries.size());
+        if (clock != null) syncClock(clock); // Apply pending night skips before measuring remaining time
+        tag.putInt("MaxSlots", this.maxItemSlots); // Save potentially configured value
         int savedCount = 0;
-        for (int i = 0; i < ItemEntries.size(); i++) {
-            EatenFoodItem foodItem = ItemEntries.get(i);
-            ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(foodItem.item);
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX; i < end; i++) {
+            Item item = BuiltInRegistries.ITEM.byId(itemIds[i]);
+            ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
             if (itemId != null && !itemId.equals(BuiltInRegistries.ITEM.getDefaultKey())) { // Check item is valid
                 tag.putString("ID" + savedCount, itemId.toString());
-                tag.putInt("Ticks" + savedCount, foodItem.ticksLeft);
+                tag.putInt("Ticks" + savedCount, remainingDuration(i)); // Saved at the normal rate, loaded data starts at rate 1
                 savedCount++;
             } else {
-                solneo.LOGGER.warn("Attempted to save unregistered or AIR item in food slot: {}", foodItem.item);
+                solneo.LOGGER.warn("Attempted to save unregistered or AIR item in food slot: {}", item);
             }
         }
         tag.putInt("Count", savedCount); // Save actual number written
 
-        if (DrinkSlot != null) {
-            ResourceLocation drinkId = BuiltInRegistries.ITEM.getKey(DrinkSlot.item);
+        if (hasDrink()) {
+            Item drinkItem = BuiltInRegistries.ITEM.byId(itemIds[DRINK_INDEX]);
+            ResourceLocation drinkId = BuiltInRegistries.ITEM.getKey(drinkItem);
             if (drinkId != null && !drinkId.equals(BuiltInRegistries.ITEM.getDefaultKey())) {
                 tag.putString("DrinkID", drinkId.toString());
-                tag.putInt("DrinkTicks", DrinkSlot.ticksLeft);
+                tag.putInt("DrinkTicks", remainingDuration(DRINK_INDEX));
             } else {
-                solneo.LOGGER.warn("Attempted to save unregistered or AIR item in drink slot: {}", DrinkSlot.item);
+                solneo.LOGGER.warn("Attempted to save unregistered or AIR item in drink slot: {}", drinkItem);
             }
         } else {
             // Clean up old tags if drink slot is empty now
@@ -303,10 +607,9 @@ public class ValheimFoodData {
 
         // Load max slots if saved, potentially overriding current config (design choice)
         if (tag.contains("MaxSlots", CompoundTag.TAG_INT)) {
-            instance.MaxItemSlots = tag.getInt("MaxSlots");
+            instance.setMaxItemSlots(tag.getInt("MaxSlots"));
         } // Otherwise, value from loadConfigValues() remains.
 
-        instance.ItemEntries.clear(); // Clear default list
         int size = tag.getInt("Count");
         for (int i = 0; i < size; i++) {
             String idStr = tag.getString("ID" + i);
@@ -317,7 +620,7 @@ public class ValheimFoodData {
                 if (itemId != null) {
                     Item item = BuiltInRegistries.ITEM.get(itemId);
                     if (item != Items.AIR) {
-                        instance.ItemEntries.add(new EatenFoodItem(item, ticks));
+                        instance.addLoadedFood(BuiltInRegistries.ITEM.getId(item), ticks);
                     } else {
                         solneo.LOGGER.warn("Failed to load item with ID '{}' from save data (Item not found).", idStr);
                     }
@@ -327,7 +630,6 @@ public class ValheimFoodData {
             }
         }
 
-        instance.DrinkSlot = null; // Clear default
         if (tag.contains("DrinkID", CompoundTag.TAG_STRING)) {
             String drinkStr = tag.getString("DrinkID");
             int drinkTicks = tag.getInt("DrinkTicks");
@@ -336,7 +638,8 @@ public class ValheimFoodData {
                 if (drinkId != null) {
                     Item drinkItem = BuiltInRegistries.ITEM.get(drinkId);
                     if (drinkItem != Items.AIR) {
-                        instance.DrinkSlot = new EatenFoodItem(drinkItem, drinkTicks);
+                        instance.itemIds[DRINK_INDEX] = BuiltInRegistries.ITEM.getId(drinkItem);
+                        instance.expiresAt[DRINK_INDEX] = drinkTicks; // Relative until the clock attaches
                     } else {
                         solneo.LOGGER.warn("Failed to load drink item with ID '{}' from save data (Item not found).", drinkStr);
                     }
@@ -347,40 +650,96 @@ public class ValheimFoodData {
         }
 
         instance.sortFood(); // Sort after loading
+        instance.updateAggregates();
         return instance;
     }
 
-    // --- Inner Class: EatenFoodItem ---
-    public static class EatenFoodItem {
-        public Item item;
-        public int ticksLeft;
+    // --- Network Serialization ---
+    // Remaining ticks at the current drain rate, as of the last clock time seen. Does not sync the clock itself,
+    // since encoding may happen on a network thread.
+    public void write(FriendlyByteBuf buf) {
+        buf.writeByte(NETWORK_VERSION);
+        buf.writeVarInt(maxItemSlots);
+        if (hasDrink()) {
+            buf.writeVarInt(itemIds[DRINK_INDEX] + 1);
+            buf.writeVarInt(remaining(DRINK_INDEX));
+        } else {
+            buf.writeVarInt(0);
+        }
+        buf.writeVarInt(foodCount);
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX; i < end; i++) {
+            buf.writeVarInt(itemIds[i]);
+            buf.writeVarInt(remaining(i));
+        }
+    }
 
-        public boolean canEatEarly() {
-            if (ticksLeft < 1200) // Always allow if less than 1 min left
-                return true;
+    // Gives an instance from STREAM_CODEC back once its contents were copied out; it must not be read afterwards.
+    // Other instances are ignored, e.g. payloads over a memory connection, which carry the server's copy undecoded.
+    public static void releaseDecoded(ValheimFoodData data) {
+        if (data.decoded) decodeSpare.set(data);
+    }
 
-            Config.FoodConfig config = Config.getFoodConfig(item);
-            if (config == null || config.getTime() <= 0)
-                return false; // Cannot eat early if not configured or time is zero/negative
+    // Bytes write() produces for the current state
+    public int encodedSize() {
+        int size = 1 + VarInt.getByteSize(maxItemSlots);
+        size += hasDrink() ? VarInt.getByteSize(itemIds[DRINK_INDEX] + 1) + VarInt.getByteSize(remaining(DRINK_INDEX)) : 1;
+        size += VarInt.getByteSize(foodCount);
+        int end = FIRST_FOOD_INDEX + foodCount;
+        for (int i = FIRST_FOOD_INDEX; i < end; i++) {
+            size += VarInt.getByteSize(itemIds[i]) + VarInt.getByteSize(remaining(i));
+        }
+        return size;
+    }
 
-            float eatAgainPercentage = 0.2f; // Default if config fails
-            if (Config.COMMON != null && Config.COMMON.eatAgainPercentage != null) {
-                try {
-                    eatAgainPercentage = Config.COMMON.eatAgainPercentage.get().floatValue();
-                } catch(Exception e) { solneo.LOGGER.warn("Failed to get eatAgainPercentage config"); }
+    // Replaces this instance's slots with the encoded state, reusing the arrays when they fit. Expiries are relative
+    // (no clock) like freshly loaded NBT data. Aggregates are left for the first read, so Config isn't touched here.
+    public void readFrom(FriendlyByteBuf buf) {
+        byte version = buf.readByte();
+        if (version != NETWORK_VERSION) {
+            throw new DecoderException("Unsupported food data version " + version);
+        }
+        int maxSlots = buf.readVarInt();
+        Arrays.fill(itemIds, EMPTY);
+        Arrays.fill(expiresAt, 0L);
+        foodCount = 0;
+        clock = null;
+        skipCursor = 0;
+        gameTime = 0L;
+        drainRate = 1f;
+        setMaxItemSlots(maxSlots);
+
+        int drink = buf.readVarInt();
+        if (drink != 0) {
+            int ticks = buf.readVarInt();
+            if (isItemId(drink - 1)) {
+                itemIds[DRINK_INDEX] = drink - 1;
+                expiresAt[DRINK_INDEX] = ticks;
             }
-            return ((float) this.ticksLeft / config.getTime()) < eatAgainPercentage;
         }
-
-        public EatenFoodItem(Item item, int ticksLeft) {
-            this.item = item;
-            this.ticksLeft = ticksLeft;
+        int count = buf.readVarInt();
+        for (int i = 0; i < count; i++) {
+            int rawId = buf.readVarInt();
+            int ticks = buf.readVarInt();
+            if (isItemId(rawId)) addLoadedFood(rawId, ticks);
         }
+        sortFood();
+        aggregateVersion = -1; // Recomputed lazily by ensureAggregates
+    }
+
+    private static boolean isItemId(int rawId) {
+        return rawId >= 0 && rawId < BuiltInRegistries.ITEM.size();
+    }
 
-        // Copy Constructor
-        public EatenFoodItem(EatenFoodItem eaten) {
-            this.item = eaten.item; // Item is typically singleton, direct assignment okay
-            this.ticksLeft = eaten.ticksLeft;
+    // Saved data may hold more foods than the current slot limit, grow instead of dropping them
+    private void addLoadedFood(int rawId, int ticks) {
+        if (FIRST_FOOD_INDEX + foodCount >= itemIds.length) {
+            int maxSlots = maxItemSlots;
+            setMaxItemSlots(foodCount + 1);
+            maxItemSlots = maxSlots;
         }
+        int index = FIRST_FOOD_INDEX + foodCount++;
+        itemIds[index] = rawId;
+        expiresAt[index] = ticks; // Relative until the clock attaches
     }
-}
\ No newline at end of file
+}
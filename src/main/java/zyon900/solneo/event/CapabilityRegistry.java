@@ -2,8 +2,8 @@ package zyon900.solneo.event;
 
 import net.neoforged.fml.common.EventBusSubscriber;
 import zyon900.solneo.solneo;
+import zyon900.solneo.capabilities.ModAttachments;
 import zyon900.solneo.capabilities.ModCapabilities;
-// No provider import needed here if relying on Attacher
 import zyon900.solneo.data.ValheimFoodData;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.EntityType;
@@ -37,15 +37,11 @@ public class CapabilityRegistry {
 
         // --- STEP 2: Register the Handle against the Entity Type ---
         // This links the Capability Type (handle) to the Entity Type (Player)
-        // The third argument (ICapabilityProvider) seems optional or handled differently now.
-        // We rely on CapabilityAttacher to provide the actual instance per player.
-        // Pass null or a lambda returning null, as the main provider instance comes later.
+        // The data itself lives in the VALHEIM_FOOD attachment, which handles saving and loading
         event.registerEntity(
                 ModCapabilities.VALHEIM_FOOD,   // The handle we just created
                 EntityType.PLAYER,              // Target entity type
-                // Provider argument: Pass null, relying on AttachCapabilitiesEvent
-                (player, context) -> null
-                // OR: (player, context) -> null
+                (player, context) -> ModAttachments.getFoodData(player)
         );
         solneo.LOGGER.debug("Registered VALHEIM_FOOD handle for Player entities.");
     }
@@ -0,0 +1,38 @@
+package zyon900.solneo.event;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.player.AbstractClientPlayer;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import zyon900.solneo.capabilities.ModAttachments;
+import zyon900.solneo.config.Config;
+import zyon900.solneo.network.FoodDeltaReceiver;
+import zyon900.solneo.solneo;
+
+@EventBusSubscriber(modid = solneo.MOD_ID, bus = EventBusSubscriber.Bus.GAME, value = Dist.CLIENT)
+public class ClientEvents {
+
+    // Drop the table received from a remote server so the next world uses the local config again
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        Config.setServerFoods(null);
+        FoodDeltaReceiver.reset();
+    }
+
+    // Counts the synced food state down between server updates: the local player's, and teammates' with shareFoodWithTeam
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null) return;
+        long gameTime = level.getGameTime();
+        for (AbstractClientPlayer player : level.players()) {
+            if (player.hasData(ModAttachments.VALHEIM_FOOD)) { // Don't create data for players nobody synced
+                ModAttachments.getFoodData(player).advanceTo(gameTime);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package zyon900.solneo.event;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import net.neoforged.neoforge.event.OnDatapackSyncEvent;
+import zyon900.solneo.config.FoodDatapackLoader;
+import zyon900.solneo.network.ModNetwork;
+import zyon900.solneo.solneo;
+
+@EventBusSubscriber(modid = solneo.MOD_ID, bus = EventBusSubscriber.Bus.GAME)
+public class DatapackEvents {
+
+    @SubscribeEvent
+    public static void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new FoodDatapackLoader());
+    }
+
+    // Fires for a joining player, or for everyone after /reload (tags are already updated by then)
+    @SubscribeEvent
+    public static void onDatapackSync(OnDatapackSyncEvent event) {
+        event.getRelevantPlayers().forEach(ModNetwork::sendFoodTable);
+    }
+}
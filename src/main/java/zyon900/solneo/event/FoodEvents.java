@@ -0,0 +1,141 @@
+package zyon900.solneo.event;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.living.LivingDamageEvent;
+import net.neoforged.neoforge.event.entity.living.LivingDeathEvent;
+import net.neoforged.neoforge.event.entity.living.LivingEntityUseItemEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.level.SleepFinishedTimeEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import zyon900.solneo.capabilities.ModAttachments;
+import zyon900.solneo.config.Config;
+import zyon900.solneo.data.FoodClock;
+import zyon900.solneo.data.FoodExpiryScheduler;
+import zyon900.solneo.data.FoodTickSystem;
+import zyon900.solneo.data.ValheimFoodData;
+import zyon900.solneo.network.FoodSync;
+import zyon900.solneo.solneo;
+
+@EventBusSubscriber(modid = solneo.MOD_ID, bus = EventBusSubscriber.Bus.GAME)
+public class FoodEvents {
+
+    // Covers both eating and drinking (the old port hooked Player.eat and completeUsingItem separately)
+    @SubscribeEvent
+    public static void onItemUseFinish(LivingEntityUseItemEvent.Finish event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        if (!data.eatItem(event.getItem().getItem(), FoodClock.of(player.serverLevel()))) return;
+        FoodExpiryScheduler.schedule(player, data);
+        FoodTickSystem.update(player);
+        FoodSync.markDirty(player);
+    }
+
+    @SubscribeEvent
+    public static void onDeath(LivingDeathEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        ModAttachments.getFoodData(player).clear();
+        FoodExpiryScheduler.cancel(player);
+        FoodTickSystem.remove(player);
+        FoodSync.markDirty(player);
+    }
+
+    // Creative and spectator players drop out of the food tick, and rejoin when switching back
+    @SubscribeEvent
+    public static void onGameModeChange(PlayerEvent.PlayerChangeGameModeEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            FoodTickSystem.update(player, event.getNewGameMode());
+        }
+    }
+
+    // Saved data only knows remaining ticks; ticking once attaches it to the game clock and drops anything already due
+    @SubscribeEvent
+    public static void onLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        data.tick(FoodClock.of(player.serverLevel()));
+        FoodExpiryScheduler.schedule(player, data);
+        FoodTickSystem.join(player);
+        FoodSync.markDirty(player);
+    }
+
+    // Respawning (or leaving the End) creates a new player entity with its own attachment
+    @SubscribeEvent
+    public static void onRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        data.tick(FoodClock.of(player.serverLevel()));
+        FoodExpiryScheduler.schedule(player, data);
+        FoodTickSystem.join(player);
+        FoodSync.markFull(player); // The client has a new player entity with an empty attachment
+    }
+
+    // Moves the data onto the new level's food clock (remaining ticks are kept) and requeues it there
+    @SubscribeEvent
+    public static void onChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) return;
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        data.tick(FoodClock.of(player.serverLevel()));
+        FoodExpiryScheduler.schedule(player, data);
+        FoodSync.markFull(player); // Same as respawning, the client recreates its player
+    }
+
+    // Sleeping through the night counts as time passed for food (passTicksDuringNight).
+    // Only the level's food clock moves; players catch up lazily. LOWEST so other mods' time changes are final.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onSleepFinished(SleepFinishedTimeEvent event) {
+        if (!Config.snapshot().passTicksDuringNight || !(event.getLevel() instanceof ServerLevel level)) return;
+        long passedTicks = event.getNewTime() - level.getDayTime();
+        if (passedTicks > 0) {
+            FoodClock.of(level).skip(passedTicks);
+            solneo.LOGGER.debug("Skipped {} food ticks in {}.", passedTicks, level.dimension().location());
+            for (ServerPlayer player : level.players()) {
+                if (!ModAttachments.getFoodData(player).isEmpty()) FoodSync.markDirty(player);
+            }
+        }
+    }
+
+    // Teammate views (shareFoodWithTeam) are sent when a teammate comes into view
+    @SubscribeEvent
+    public static void onStartTracking(PlayerEvent.StartTracking event) {
+        if (event.getTarget() instanceof ServerPlayer target && event.getEntity() instanceof ServerPlayer viewer) {
+            FoodSync.sendTeammateView(viewer, target);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            FoodExpiryScheduler.cancel(player);
+            FoodTickSystem.logout(player);
+            FoodSync.remove(player);
+        }
+    }
+
+    // Regeneration waits regenDelay ticks after any damage
+    @SubscribeEvent
+    public static void onDamage(LivingDamageEvent.Post event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            FoodTickSystem.onHurt(player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        FoodExpiryScheduler.tick(event.getServer()); // Expire first so this tick's totals are current
+        FoodTickSystem.tick(event.getServer());
+        FoodSync.tick(event.getServer()); // Last, after this tick's expiries and drain changes
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        FoodExpiryScheduler.clear();
+        FoodClock.clear();
+        FoodTickSystem.clear();
+        FoodSync.clear();
+    }
+}
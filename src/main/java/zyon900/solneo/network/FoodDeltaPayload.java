@@ -0,0 +1,90 @@
+package zyon900.solneo.network;
+
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.VarLong;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import zyon900.solneo.solneo;
+
+/**
+ * Server to client: changes to the player's own food slots since the previous update on this connection.
+ * Slots are array indices (0 = drink, foods from 1). Each changed slot carries a palette reference (-1 = empty)
+ * and its remaining ticks as of gameTime. Item ids first seen by the connection are appended to its palette
+ * by newPaletteIds, in order. A full update resets the palette and lists every slot.
+ * The sequence number lets the client notice a missed or out-of-order update and ask for a full one.
+ */
+public record FoodDeltaPayload(boolean full, int sequence, long gameTime, int maxSlots, int foodCount,
+                               int[] newPaletteIds, int[] slots, int[] refs, int[] ticks) implements CustomPacketPayload {
+
+    static final int MAX_ENTRIES = 256; // Palette and slot lists, guards the decoder against huge allocations
+
+    public static final Type<FoodDeltaPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(solneo.MOD_ID, "food_delta"));
+
+    public static final StreamCodec<FriendlyByteBuf, FoodDeltaPayload> STREAM_CODEC =
+            StreamCodec.ofMember(FoodDeltaPayload::write, FoodDeltaPayload::read);
+
+    private void write(FriendlyByteBuf buf) {
+        buf.writeBoolean(full);
+        buf.writeVarInt(sequence);
+        buf.writeVarLong(gameTime);
+        buf.writeVarInt(maxSlots);
+        buf.writeVarInt(foodCount);
+        buf.writeVarInt(newPaletteIds.length);
+        for (int rawId : newPaletteIds) buf.writeVarInt(rawId);
+        buf.writeVarInt(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            buf.writeVarInt(slots[i]);
+            buf.writeVarInt(refs[i] + 1);
+            if (refs[i] >= 0) buf.writeVarInt(ticks[i]);
+        }
+    }
+
+    private static FoodDeltaPayload read(FriendlyByteBuf buf) {
+        boolean full = buf.readBoolean();
+        int sequence = buf.readVarInt();
+        long gameTime = buf.readVarLong();
+        int maxSlots = buf.readVarInt();
+        int foodCount = buf.readVarInt();
+        int[] newPaletteIds = new int[readCount(buf)];
+        for (int i = 0; i < newPaletteIds.length; i++) newPaletteIds[i] = buf.readVarInt();
+        int changed = readCount(buf);
+        int[] slots = new int[changed];
+        int[] refs = new int[changed];
+        int[] ticks = new int[changed];
+        for (int i = 0; i < changed; i++) {
+            slots[i] = buf.readVarInt();
+            refs[i] = buf.readVarInt() - 1;
+            if (refs[i] >= 0) ticks[i] = buf.readVarInt();
+        }
+        return new FoodDeltaPayload(full, sequence, gameTime, maxSlots, foodCount, newPaletteIds, slots, refs, ticks);
+    }
+
+    private static int readCount(FriendlyByteBuf buf) {
+        int count = buf.readVarInt();
+        if (count < 0 || count > MAX_ENTRIES) throw new DecoderException("Bad food delta list size " + count);
+        return count;
+    }
+
+    // Encoded body size in bytes, without the payload id the connection adds
+    public int encodedSize() {
+        int size = 1 + VarInt.getByteSize(sequence) + VarLong.getByteSize(gameTime)
+                + VarInt.getByteSize(maxSlots) + VarInt.getByteSize(foodCount);
+        size += VarInt.getByteSize(newPaletteIds.length);
+        for (int rawId : newPaletteIds) size += VarInt.getByteSize(rawId);
+        size += VarInt.getByteSize(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            size += VarInt.getByteSize(slots[i]) + VarInt.getByteSize(refs[i] + 1);
+            if (refs[i] >= 0) size += VarInt.getByteSize(ticks[i]);
+        }
+        return size;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,68 @@
+package zyon900.solneo.network;
+
+import zyon900.solneo.data.ValheimFoodData;
+
+import java.util.Arrays;
+
+/**
+ * Client side of the food delta stream: the palette built up from the server's updates and the last sequence
+ * number applied. Kept across player entity changes (respawn, dimension change), for which the server sends
+ * a full update anyway. Client thread only.
+ */
+public final class FoodDeltaReceiver {
+
+    private static int[] palette = new int[16]; // Palette index -> raw item id
+    private static int paletteSize = 0;
+    private static int lastSequence = 0;
+    private static boolean synced = false; // A full update has been applied and no delta was missed since
+    private static boolean resyncRequested = false;
+
+    private FoodDeltaReceiver() {}
+
+    // Applies the update to the local player's mirror. Returns true if the server should be asked for a full update.
+    static boolean apply(FoodDeltaPayload payload, ValheimFoodData data) {
+        if (!payload.full() && (!synced || payload.sequence() != lastSequence + 1)) {
+            return mismatch();
+        }
+        if (payload.full()) paletteSize = 0;
+        if (paletteSize + payload.newPaletteIds().length > palette.length) {
+            palette = Arrays.copyOf(palette, Math.max(palette.length * 2, paletteSize + payload.newPaletteIds().length));
+        }
+        for (int rawId : payload.newPaletteIds()) palette[paletteSize++] = rawId;
+
+        int slotCount = 1 + Math.max(payload.maxSlots(), payload.foodCount());
+        int[] slots = payload.slots();
+        int[] refs = payload.refs();
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] < 0 || slots[i] >= slotCount || refs[i] >= paletteSize) return mismatch();
+        }
+
+        data.beginMirrorUpdate(payload.full(), payload.maxSlots(), payload.foodCount());
+        int[] ticks = payload.ticks();
+        for (int i = 0; i < slots.length; i++) {
+            int rawId = refs[i] >= 0 ? palette[refs[i]] : -1;
+            data.setMirrorSlot(slots[i], rawId, payload.gameTime() + ticks[i]);
+        }
+        data.endMirrorUpdate(payload.foodCount());
+        lastSequence = payload.sequence();
+        synced = true;
+        resyncRequested = false;
+        return false;
+    }
+
+    // Further deltas are ignored until the full update arrives; ask only once
+    private static boolean mismatch() {
+        synced = false;
+        if (resyncRequested) return false;
+        resyncRequested = true;
+        return true;
+    }
+
+    // Disconnecting: the next server starts a new stream
+    public static void reset() {
+        paletteSize = 0;
+        lastSequence = 0;
+        synced = false;
+        resyncRequested = false;
+    }
+}
@@ -0,0 +1,120 @@
+package zyon900.solneo.network;
+
+import zyon900.solneo.data.ValheimFoodData;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Server side of one connection's food delta stream: what the client was last sent, slot by slot, and the item
+ * palette it has built from those updates. Updates arrive in order over the connection, so the last state sent is
+ * the state the client holds unless it reports otherwise (FoodResyncRequestPayload), which forces a full update.
+ */
+final class FoodDeltaState {
+
+    private static final int EMPTY = -1;
+
+    // --- Pending Change Kinds ---
+    static final int NO_CHANGE = 0;
+    static final int EXPIRY_CHANGE = 1; // Only remaining times moved (drain rate, night skip, refresh in place)
+    static final int SLOT_CHANGE = 2; // A slot was gained, lost or replaced, or the client needs everything
+
+    private int sequence = 0;
+    private boolean needsFull = true; // Nothing sent yet
+    private final Map<Integer, Integer> palette = new HashMap<>(); // Raw item id -> palette index
+    private int[] sentIds = new int[0]; // By slot, EMPTY if the client has it empty
+    private long[] sentExpiry = new long[0]; // Level game time, comparable across updates unlike remaining ticks
+    private int sentMaxSlots = -1;
+    private int sentFoodCount = 0;
+    int deferredTicks = 0; // How long the current expiry-only change has been held back (FoodSync)
+
+    void requestFull() {
+        needsFull = true;
+    }
+
+    // What build() would send, without building it. data must be synced to its food clock.
+    int pendingChange(ValheimFoodData data, long gameTime) {
+        int foodCount = data.getFoodCount();
+        if (needsFull || data.getMaxItemSlots() != sentMaxSlots || foodCount != sentFoodCount) return SLOT_CHANGE;
+        int change = compare(0, data.getDrinkItemId(), data.getDrinkTicksLeft(), gameTime);
+        for (int i = 0; i < foodCount && change != SLOT_CHANGE; i++) {
+            change = Math.max(change, compare(1 + i, data.getFoodItemId(i), data.getFoodTicksLeft(i), gameTime));
+        }
+        return change;
+    }
+
+    private int compare(int slot, int rawId, int left, long gameTime) {
+        if (sentIds[slot] != rawId) return SLOT_CHANGE;
+        long expiry = rawId != EMPTY ? gameTime + left : 0L;
+        return sentExpiry[slot] != expiry ? EXPIRY_CHANGE : NO_CHANGE;
+    }
+
+    // Returns the update that brings the client to the current state, or null if it already has it.
+    // data must be synced to its food clock, so its remaining ticks are as of gameTime.
+    FoodDeltaPayload build(ValheimFoodData data, long gameTime) {
+        int maxSlots = data.getMaxItemSlots();
+        int foodCount = data.getFoodCount();
+        int slotCount = 1 + Math.max(maxSlots, foodCount);
+        boolean full = needsFull || palette.size() + slotCount > FoodDeltaPayload.MAX_ENTRIES;
+        if (full) {
+            palette.clear();
+            Arrays.fill(sentIds, EMPTY);
+        }
+        if (sentIds.length < slotCount) {
+            int oldLength = sentIds.length;
+            sentIds = Arrays.copyOf(sentIds, slotCount);
+            sentExpiry = Arrays.copyOf(sentExpiry, slotCount);
+            Arrays.fill(sentIds, oldLength, slotCount, EMPTY);
+        }
+
+        int[] slots = new int[slotCount];
+        int[] refs = new int[slotCount];
+        int[] ticks = new int[slotCount];
+        int[] newIds = new int[slotCount];
+        int changed = 0;
+        int added = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            int rawId;
+            int left;
+            if (slot == 0) {
+                rawId = data.getDrinkItemId();
+                left = data.getDrinkTicksLeft();
+            } else if (slot <= foodCount) {
+                rawId = data.getFoodItemId(slot - 1);
+                left = data.getFoodTicksLeft(slot - 1);
+            } else {
+                sentIds[slot] = EMPTY; // The client drops food slots past foodCount itself
+                continue;
+            }
+            long expiry = rawId != EMPTY ? gameTime + left : 0L;
+            if (!full && sentIds[slot] == rawId && sentExpiry[slot] == expiry) continue;
+
+            int ref = EMPTY;
+            if (rawId != EMPTY) {
+                Integer known = palette.get(rawId);
+                if (known == null) {
+                    known = palette.size();
+                    palette.put(rawId, known);
+                    newIds[added++] = rawId;
+                }
+                ref = known;
+            }
+            slots[changed] = slot;
+            refs[changed] = ref;
+            ticks[changed] = left;
+            changed++;
+            sentIds[slot] = rawId;
+            sentExpiry[slot] = expiry;
+        }
+        for (int slot = slotCount; slot < sentIds.length; slot++) sentIds[slot] = EMPTY; // Slot limit was lowered
+
+        if (!full && changed == 0 && maxSlots == sentMaxSlots && foodCount == sentFoodCount) return null;
+        needsFull = false;
+        sentMaxSlots = maxSlots;
+        sentFoodCount = foodCount;
+        return new FoodDeltaPayload(full, ++sequence, gameTime, maxSlots, foodCount,
+                Arrays.copyOf(newIds, added), Arrays.copyOf(slots, changed), Arrays.copyOf(refs, changed),
+                Arrays.copyOf(ticks, changed));
+    }
+}
@@ -0,0 +1,25 @@
+package zyon900.solneo.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import zyon900.solneo.solneo;
+
+/**
+ * Client to server: a food delta didn't fit the client's state, send the full state on the next sync.
+ */
+public record FoodResyncRequestPayload() implements CustomPacketPayload {
+
+    public static final FoodResyncRequestPayload INSTANCE = new FoodResyncRequestPayload();
+
+    public static final Type<FoodResyncRequestPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(solneo.MOD_ID, "food_resync"));
+
+    public static final StreamCodec<FriendlyByteBuf, FoodResyncRequestPayload> STREAM_CODEC = StreamCodec.unit(INSTANCE);
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
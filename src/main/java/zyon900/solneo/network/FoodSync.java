@@ -0,0 +1,263 @@
+package zyon900.solneo.network;
+
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.scores.PlayerTeam;
+import net.neoforged.neoforge.network.PacketDistributor;
+import zyon900.solneo.capabilities.ModAttachments;
+import zyon900.solneo.config.Config;
+import zyon900.solneo.config.ConfigSnapshot;
+import zyon900.solneo.data.FoodClock;
+import zyon900.solneo.data.ValheimFoodData;
+import zyon900.solneo.solneo;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sends each player their food state when it changes instead of every tick. Changes (eating, expiry, death,
+ * night skip, drain rate) only mark the player; everything marked is sent once at the end of the server tick,
+ * so several changes in one tick cost one message. The client derives the countdown from the game time,
+ * and a slow round-robin resync (foodResyncInterval) corrects any drift.
+ *
+ * State goes only to the owner's connection, not to everyone tracking the player, so traffic grows with the
+ * player count rather than its square. The owner gets only the slots that changed (see {@link FoodDeltaState});
+ * respawns, dimension changes, resyncs and client resync requests send the full state.
+ * With shareFoodWithTeam, teammates in the same level get a full copy too.
+ * Messages and bytes are counted per receiving connection.
+ *
+ * While the average tick time is over syncMsptBudget, cosmetic traffic waits: updates that only move remaining
+ * times (up to MAX_DEFER_TICKS), teammate views and periodic resyncs, which are carried over and sent afterwards.
+ * Slot gains and losses still go out at once.
+ * Server thread only.
+ */
+public final class FoodSync {
+
+    private static final Map<UUID, ServerPlayer> dirty = new LinkedHashMap<>();
+    private static final Map<UUID, FoodDeltaState> connections = new HashMap<>(); // Delta stream per owner connection
+    private static int resyncCursor = 0; // Index into the player list
+    private static int resyncTick = 0; // Position within the resync interval
+    // Players whose teammates missed an update while the server was over budget
+    private static final Map<UUID, ServerPlayer> deferredTeamViews = new LinkedHashMap<>();
+    private static final int MAX_DEFER_TICKS = 100; // Expiry-only updates are held back at most this long
+    // Players with food whose periodic resync came due while the server was over budget, oldest first
+    private static final Set<UUID> resyncBacklog = new LinkedHashSet<>();
+
+    // --- Counters ---
+    private static long messagesSent = 0L;
+    private static long bytesSent = 0L;
+    private static long resyncsSent = 0L;
+    private static long updatesDeferred = 0L;
+    private static long teamViewsDeferred = 0L;
+    private static long resyncsDeferred = 0L;
+    private static final Map<UUID, Traffic> traffic = new HashMap<>(); // Per receiving connection
+
+    private static final class Traffic {
+        long messages;
+        long bytes;
+    }
+
+    private FoodSync() {}
+
+    public static void markDirty(ServerPlayer player) {
+        dirty.put(player.getUUID(), player); // Latest entity wins after a respawn
+    }
+
+    // The client's copy is gone or can't be trusted (new player entity, resync request): send everything
+    public static void markFull(ServerPlayer player) {
+        connection(player).requestFull();
+        markDirty(player);
+    }
+
+    private static FoodDeltaState connection(ServerPlayer player) {
+        return connections.computeIfAbsent(player.getUUID(), id -> new FoodDeltaState());
+    }
+
+    public static void tick(MinecraftServer server) {
+        ConfigSnapshot config = Config.snapshot();
+        boolean overloaded = config.syncMsptBudget > 0f
+                && server.getAverageTickTimeNanos() > (long) (config.syncMsptBudget * 1_000_000L);
+        queueResyncs(server, config.foodResyncInterval, overloaded);
+        if (!overloaded && !deferredTeamViews.isEmpty()) {
+            for (ServerPlayer player : deferredTeamViews.values()) {
+                if (!player.hasDisconnected()) sendTeamViews(player);
+            }
+            deferredTeamViews.clear();
+        }
+        if (dirty.isEmpty()) return;
+        Iterator<ServerPlayer> it = dirty.values().iterator();
+        while (it.hasNext()) {
+            ServerPlayer player = it.next();
+            if (player.hasDisconnected() || send(player, overloaded)) it.remove(); // Deferred ones stay marked
+        }
+    }
+
+    // Spreads the resyncs so every player is visited once per interval, a few per tick. While overloaded the due
+    // players are carried over instead, and sent afterwards at up to the same pace again on top of the regular ones.
+    private static void queueResyncs(MinecraftServer server, int interval, boolean overloaded) {
+        if (interval <= 0) return;
+        List<ServerPlayer> online = server.getPlayerList().getPlayers();
+        int n = online.size();
+        resyncTick = resyncTick % interval;
+        int due = (int) ((long) (resyncTick + 1) * n / interval - (long) resyncTick * n / interval);
+        resyncTick++;
+        for (int k = 0; k < due; k++) {
+            if (resyncCursor >= n) resyncCursor = 0;
+            ServerPlayer player = online.get(resyncCursor++);
+            if (ModAttachments.getFoodData(player).isEmpty()) continue; // Nothing to correct
+            if (overloaded) {
+                if (resyncBacklog.add(player.getUUID())) resyncsDeferred++;
+            } else {
+                resyncBacklog.remove(player.getUUID());
+                resync(player);
+            }
+        }
+
+        if (overloaded || resyncBacklog.isEmpty()) return;
+        Iterator<UUID> it = resyncBacklog.iterator();
+        for (int k = Math.max(1, due); k > 0 && it.hasNext(); k--) {
+            ServerPlayer player = server.getPlayerList().getPlayer(it.next()); // Current entity, even after a respawn
+            it.remove();
+            if (player != null && !ModAttachments.getFoodData(player).isEmpty()) resync(player);
+        }
+    }
+
+    private static void resync(ServerPlayer player) {
+        markFull(player);
+        resyncsSent++;
+    }
+
+    // Returns false if the update was held back for a later tick
+    private static boolean send(ServerPlayer player, boolean overloaded) {
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        data.syncClock(FoodClock.of(player.serverLevel())); // Pending night skips, remaining ticks as of now
+        FoodDeltaState state = connection(player);
+        long gameTime = player.serverLevel().getGameTime();
+        int change = state.pendingChange(data, gameTime);
+        if (change == FoodDeltaState.NO_CHANGE) { // Marked, but nothing the client can see changed
+            state.deferredTicks = 0; // A held back update that was undone doesn't count towards the next one
+            return true;
+        }
+        if (overloaded && change == FoodDeltaState.EXPIRY_CHANGE && state.deferredTicks < MAX_DEFER_TICKS) {
+            if (state.deferredTicks++ == 0) updatesDeferred++;
+            return false;
+        }
+        state.deferredTicks = 0;
+        FoodDeltaPayload delta = state.build(data, gameTime);
+        if (delta == null) return true;
+        sendTo(player, delta, delta.encodedSize());
+
+        if (Config.snapshot().shareFoodWithTeam && player.getTeam() != null) {
+            if (overloaded) {
+                if (deferredTeamViews.put(player.getUUID(), player) == null) teamViewsDeferred++;
+            } else {
+                sendTeamViews(player);
+            }
+        }
+        return true;
+    }
+
+    private static void sendTeamViews(ServerPlayer player) {
+        PlayerTeam team = player.getTeam();
+        if (team != null) {
+            FoodSyncPayload payload = snapshot(player);
+            for (String name : team.getPlayers()) {
+                ServerPlayer teammate = player.server.getPlayerList().getPlayerByName(name);
+                // Elsewhere the client has no entity to put it on; StartTracking sends it once they meet
+                if (teammate != null && teammate != player && teammate.level() == player.level()) {
+                    sendTo(teammate, payload, payload.encodedSize());
+                }
+            }
+        }
+    }
+
+    // A teammate just started seeing the player
+    public static void sendTeammateView(ServerPlayer viewer, ServerPlayer player) {
+        if (!Config.snapshot().shareFoodWithTeam || !viewer.isAlliedTo(player)) return;
+        if (ModAttachments.getFoodData(player).isEmpty()) return; // Clients start out empty
+        FoodSyncPayload payload = snapshot(player);
+        sendTo(viewer, payload, payload.encodedSize());
+    }
+
+    private static FoodSyncPayload snapshot(ServerPlayer player) {
+        ValheimFoodData data = ModAttachments.getFoodData(player);
+        data.syncClock(FoodClock.of(player.serverLevel())); // Pending night skips, remaining ticks as of now
+        // A copy, since the payload may be encoded on a network thread (or handed over as is in singleplayer)
+        return new FoodSyncPayload(player.getId(), player.serverLevel().getGameTime(), data.copy());
+    }
+
+    private static void sendTo(ServerPlayer receiver, CustomPacketPayload payload, int size) {
+        PacketDistributor.sendToPlayer(receiver, payload);
+        Traffic counters = traffic.computeIfAbsent(receiver.getUUID(), id -> new Traffic());
+        counters.messages++;
+        counters.bytes += size;
+        messagesSent++;
+        bytesSent += size;
+    }
+
+    public static void remove(ServerPlayer player) {
+        dirty.remove(player.getUUID());
+        deferredTeamViews.remove(player.getUUID());
+        resyncBacklog.remove(player.getUUID());
+        connections.remove(player.getUUID()); // Rejoining starts a new stream with a full update
+        Traffic counters = traffic.remove(player.getUUID());
+        if (counters != null) {
+            solneo.LOGGER.debug("Sent {} food sync messages ({} bytes) to {}.",
+                    counters.messages, counters.bytes, player.getScoreboardName());
+        }
+    }
+
+    public static long getMessagesSent() {
+        return messagesSent;
+    }
+
+    // Expiry-only updates held back while over budget, counted once per update
+    public static long getUpdatesDeferred() {
+        return updatesDeferred;
+    }
+
+    public static long getTeamViewsDeferred() {
+        return teamViewsDeferred;
+    }
+
+    // Periodic resyncs of players with food carried over because the server was over budget, once per player
+    public static long getResyncsDeferred() {
+        return resyncsDeferred;
+    }
+
+    public static long getBytesSent() {
+        return bytesSent;
+    }
+
+    // Payload bytes sent to this player's connection since they joined, 0 if none
+    public static long getBytesSent(ServerPlayer player) {
+        Traffic counters = traffic.get(player.getUUID());
+        return counters != null ? counters.bytes : 0L;
+    }
+
+    public static long getMessagesSent(ServerPlayer player) {
+        Traffic counters = traffic.get(player.getUUID());
+        return counters != null ? counters.messages : 0L;
+    }
+
+    public static long getResyncsSent() {
+        return resyncsSent;
+    }
+
+    public static void clear() {
+        dirty.clear();
+        deferredTeamViews.clear();
+        resyncBacklog.clear();
+        connections.clear();
+        traffic.clear();
+        resyncCursor = 0;
+        resyncTick = 0;
+    }
+}
@@ -0,0 +1,39 @@
+package zyon900.solneo.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.VarLong;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import zyon900.solneo.data.ValheimFoodData;
+import zyon900.solneo.solneo;
+
+/**
+ * Server to client: the full food state of a teammate (shareFoodWithTeam), with remaining ticks as of the server
+ * level's game time at sending. The client counts down from there until the next sync.
+ * A player's own state goes through {@link FoodDeltaPayload} instead.
+ */
+public record FoodSyncPayload(int entityId, long gameTime, ValheimFoodData data) implements CustomPacketPayload {
+
+    public static final Type<FoodSyncPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(solneo.MOD_ID, "food_sync"));
+
+    public static final StreamCodec<FriendlyByteBuf, FoodSyncPayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> {
+                buf.writeVarInt(payload.entityId());
+                buf.writeVarLong(payload.gameTime());
+                payload.data().write(buf);
+            },
+            buf -> new FoodSyncPayload(buf.readVarInt(), buf.readVarLong(), ValheimFoodData.STREAM_CODEC.decode(buf)));
+
+    // Encoded body size in bytes, without the payload id the connection adds
+    public int encodedSize() {
+        return VarInt.getByteSize(entityId) + VarLong.getByteSize(gameTime) + data.encodedSize();
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,27 @@
+package zyon900.solneo.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import zyon900.solneo.config.FoodTable;
+import zyon900.solneo.config.FoodTableCodec;
+import zyon900.solneo.solneo;
+
+/**
+ * Server to client: the fully resolved food table, sent once on join and again after every /reload.
+ */
+public record FoodTablePayload(FoodTable table) implements CustomPacketPayload {
+
+    public static final Type<FoodTablePayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(solneo.MOD_ID, "food_table"));
+
+    public static final StreamCodec<FriendlyByteBuf, FoodTablePayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> FoodTableCodec.write(buf, payload.table()),
+            buf -> new FoodTablePayload(FoodTableCodec.read(buf)));
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
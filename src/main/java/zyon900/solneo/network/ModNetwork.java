@@ -0,0 +1,72 @@
+package zyon900.solneo.network;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.network.PacketDistributor;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.neoforged.neoforge.network.registration.PayloadRegistrar;
+import zyon900.solneo.capabilities.ModAttachments;
+import zyon900.solneo.config.Config;
+import zyon900.solneo.data.ValheimFoodData;
+import zyon900.solneo.solneo;
+
+@EventBusSubscriber(modid = solneo.MOD_ID, bus = EventBusSubscriber.Bus.MOD)
+public class ModNetwork {
+
+    private static final String PROTOCOL_VERSION = "1";
+
+    @SubscribeEvent
+    public static void onRegisterPayloads(RegisterPayloadHandlersEvent event) {
+        PayloadRegistrar registrar = event.registrar(PROTOCOL_VERSION);
+        registrar.playToClient(FoodTablePayload.TYPE, FoodTablePayload.STREAM_CODEC, ModNetwork::handleFoodTable);
+        registrar.playToClient(FoodSyncPayload.TYPE, FoodSyncPayload.STREAM_CODEC, ModNetwork::handleFoodSync);
+        registrar.playToClient(FoodDeltaPayload.TYPE, FoodDeltaPayload.STREAM_CODEC, ModNetwork::handleFoodDelta);
+        registrar.playToServer(FoodResyncRequestPayload.TYPE, FoodResyncRequestPayload.STREAM_CODEC, ModNetwork::handleResyncRequest);
+        solneo.LOGGER.debug("Registered network payloads.");
+    }
+
+    // Sends the server's current food table. Skipped for the singleplayer host, which shares the server's Config.
+    public static void sendFoodTable(ServerPlayer player) {
+        if (player.connection.getConnection().isMemoryConnection()) return;
+        PacketDistributor.sendToPlayer(player, new FoodTablePayload(Config.snapshot().foods));
+    }
+
+    private static void handleFoodTable(FoodTablePayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            Config.setServerFoods(payload.table());
+            solneo.LOGGER.debug("Received food table with {} entries from server.", payload.table().size());
+        });
+    }
+
+    // Teammate views: the player's attachment on the client becomes a clockless mirror, counted down by ClientEvents.
+    // Views of players the client no longer has are dropped.
+    private static void handleFoodSync(FoodSyncPayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player().level().getEntity(payload.entityId()) instanceof Player player) {
+                ValheimFoodData data = ModAttachments.getFoodData(player);
+                data.copyFrom(payload.data());
+                data.anchorAt(payload.gameTime());
+            }
+            ValheimFoodData.releaseDecoded(payload.data()); // Copied out, the decoder may reuse it
+        });
+    }
+
+    // The local player's own state, applied slot by slot to its mirror
+    private static void handleFoodDelta(FoodDeltaPayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (FoodDeltaReceiver.apply(payload, ModAttachments.getFoodData(context.player()))) {
+                solneo.LOGGER.debug("Food update {} didn't match local state, requesting a full one.", payload.sequence());
+                context.reply(FoodResyncRequestPayload.INSTANCE);
+            }
+        });
+    }
+
+    private static void handleResyncRequest(FoodResyncRequestPayload payload, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() instanceof ServerPlayer player) FoodSync.markFull(player);
+        });
+    }
+}
@@ -1,11 +1,14 @@
 package zyon900.solneo;
 
+import zyon900.solneo.capabilities.ModAttachments;
 import zyon900.solneo.config.Config;
+import zyon900.solneo.config.FoodClassification;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.neoforged.neoforge.common.NeoForge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +23,10 @@ public class solneo {
 
         // Register setup methods (using the modEventBus parameter)
         modEventBus.addListener(this::commonSetup);
+        modEventBus.addListener(Config::onConfigLoading);
+        modEventBus.addListener(Config::onConfigReloading);
+        ModAttachments.ATTACHMENT_TYPES.register(modEventBus);
+        NeoForge.EVENT_BUS.addListener(Config::onTagsUpdated);
         // Client setup listener remains handled by @Mod.EventBusSubscriber
 
         // --- CONFIG REGISTRATION (Using ModContainer) ---
@@ -31,6 +38,7 @@ public class solneo {
     // Common setup method remains the same
     private void commonSetup(final FMLCommonSetupEvent event) {
         LOGGER.debug("Common Setup starting...");
+        FoodClassification.build(); // Must run before the food table is resolved
         Config.loadAndParseFoodConfigs();
         LOGGER.info("Common setup finished.");
     }
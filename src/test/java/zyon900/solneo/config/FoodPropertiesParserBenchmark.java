@@ -0,0 +1,56 @@
+package zyon900.solneo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Parses 100k foodProperties entries with the old split-based parser and with FoodPropertiesParser.
+ * Skipped unless run with -Dsolneo.benchmarks=true; prints the best of several rounds after a warm-up.
+ */
+class FoodPropertiesParserBenchmark {
+
+    private static final int ENTRIES = 100_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 10;
+
+    @Test
+    void parse100kEntries() {
+        assumeTrue(Boolean.getBoolean("solneo.benchmarks"), "benchmarks disabled");
+
+        List<String> list = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            // Mix of the shapes a large modpack list has: plain entries and entries with one or two effects
+            String entry = "modpack:food_" + i + "|" + (600 + i % 6000) + "|" + (i % 10) + ".5|0.0" + (i % 9 + 1);
+            if (i % 3 == 1) entry += "|regeneration:0.5:" + (i % 3);
+            if (i % 3 == 2) entry += "|speed:1.0:0|haste:0.25:1";
+            list.add(entry);
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += LegacyFoodParser.parse(list).size();
+            sink += FoodPropertiesParser.parse(list).items().size();
+        }
+
+        long oldBest = Long.MAX_VALUE;
+        long newBest = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += LegacyFoodParser.parse(list).size();
+            oldBest = Math.min(oldBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            sink += FoodPropertiesParser.parse(list).items().size();
+            newBest = Math.min(newBest, System.nanoTime() - start);
+        }
+
+        assertEquals((long) ENTRIES * 2 * (WARMUP_ROUNDS + ROUNDS), sink);
+        System.out.printf("foodProperties parse, %d entries: split-based %.1f ms, single-pass %.1f ms (%.2fx)%n",
+                ENTRIES, oldBest / 1e6, newBest / 1e6, (double) oldBest / newBest);
+    }
+}
@@ -0,0 +1,146 @@
+package zyon900.solneo.config;
+
+import net.minecraft.resources.ResourceLocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FoodPropertiesParser against the split-based parser it replaced: every item entry must give the same config,
+ * and every entry the old parser skipped must be skipped.
+ */
+class FoodPropertiesParserTest {
+
+    private static final ResourceLocation APPLE = ResourceLocation.tryParse("minecraft:apple");
+
+    @Test
+    void plainEffectIsAccepted() {
+        Config.FoodConfig apple = parseOne("minecraft:apple|1200|2.5|0.05|regeneration:0.5:1");
+        assertEquals(1, apple.extraEffects.size());
+        Config.MobEffectConfig effect = apple.extraEffects.get(0);
+        assertEquals("regeneration", effect.effectId);
+        assertEquals(0.5f, effect.durationMultiplier);
+        assertEquals(1, effect.amplifier);
+    }
+
+    @Test
+    void namespacedEffectIsSkippedLikeBefore() {
+        Config.FoodConfig apple = parseOne("minecraft:apple|1200|2.5|0.05|minecraft:regeneration:1.0:1|haste:1.0:0");
+        assertEquals(1, apple.extraEffects.size()); // Only the three-part effect survives
+        assertEquals("haste", apple.extraEffects.get(0).effectId);
+    }
+
+    @Test
+    void badEffectNumbersRejectTheEntry() {
+        assertNull(parse("minecraft:apple|1200|2.5|0.05|regeneration:x:1").items().get(APPLE));
+        assertNull(parse("minecraft:apple|1200|2.5|0.05|regeneration:1.0: 1").items().get(APPLE)); // parseInt never trimmed
+    }
+
+    @Test
+    void trailingSeparatorsAreIgnored() {
+        Config.FoodConfig apple = parseOne("minecraft:apple|1200|2.5|0.05|regeneration:1.0:1::||");
+        assertEquals(1, apple.extraEffects.size());
+        assertEquals(4, FoodPropertiesParser.countParts("a|b|c|d||"));
+        assertEquals("a|b|c|d||".split("\\|").length, FoodPropertiesParser.countParts("a|b|c|d||"));
+    }
+
+    @Test
+    void countPartsMatchesSplit() {
+        for (String entry : new String[] {"", "|", "||", "a", "a|", "|a", "a||b", "a|b|c|d", " | | | "}) {
+            assertEquals(entry.split("\\|").length, FoodPropertiesParser.countParts(entry), "'" + entry + "'");
+        }
+    }
+
+    @Test
+    void randomEntriesMatchOldParser() {
+        Random random = new Random(4L);
+        for (int run = 0; run < 2000; run++) {
+            List<String> list = new ArrayList<>();
+            for (int i = 0; i < 8; i++) list.add(randomEntry(random));
+            assertSameResult(list);
+        }
+    }
+
+    @Test
+    void shippedDefaultsMatchOldParser() {
+        assertSameResult(Config.Common.DEFAULT_FOOD_PROPERTIES);
+        assertEquals(Config.Common.DEFAULT_FOOD_PROPERTIES.size(), parse(Config.Common.DEFAULT_FOOD_PROPERTIES).items().size());
+    }
+
+    // --- Helpers ---
+
+    private static FoodRules parse(String entry) {
+        return parse(List.of(entry));
+    }
+
+    private static FoodRules parse(List<String> list) {
+        return FoodPropertiesParser.parse(list);
+    }
+
+    private static Config.FoodConfig parseOne(String entry) {
+        Config.FoodConfig config = parse(entry).items().get(APPLE);
+        assertNotNull(config, entry);
+        return config;
+    }
+
+    private static void assertSameResult(List<String> list) {
+        Map<ResourceLocation, Config.FoodConfig> expected = LegacyFoodParser.parse(list);
+        FoodRules rules = FoodPropertiesParser.parse(list);
+        Map<ResourceLocation, Config.FoodConfig> actual = rules.items();
+        String context = String.join("\n", list);
+        assertEquals(expected.keySet(), actual.keySet(), context);
+        for (Map.Entry<ResourceLocation, Config.FoodConfig> entry : expected.entrySet()) {
+            assertSameConfig(entry.getValue(), actual.get(entry.getKey()), context);
+        }
+        assertTrue(rules.tags().isEmpty() && rules.namespaces().isEmpty(), context); // The fuzzer only makes item targets
+    }
+
+    private static void assertSameConfig(Config.FoodConfig expected, Config.FoodConfig actual, String context) {
+        assertEquals(expected.timeTicks, actual.timeTicks, context);
+        assertEquals(expected.hearts, actual.hearts, context);
+        assertEquals(expected.healthRegenPerTick, actual.healthRegenPerTick, context);
+        assertEquals(expected.extraEffects.size(), actual.extraEffects.size(), context);
+        for (int i = 0; i < expected.extraEffects.size(); i++) {
+            Config.MobEffectConfig e = expected.extraEffects.get(i);
+            Config.MobEffectConfig a = actual.extraEffects.get(i);
+            assertEquals(e.effectId, a.effectId, context);
+            assertEquals(e.durationMultiplier, a.durationMultiplier, context);
+            assertEquals(e.amplifier, a.amplifier, context);
+        }
+    }
+
+    private static final String[] TARGETS = {"minecraft:apple", " minecraft:bread ", "cookie", "Bad Id", "", "mod:food/pie", "a:b:c"};
+    private static final String[] INTS = {"1200", " 600 ", "-5", "0", "x", "", "1.5", "2147483648"};
+    private static final String[] FLOATS = {"2", " 2.5 ", "0.05", "-1", "1e2", "NaN", "x", "", "3f"};
+    private static final String[] EFFECTS = {
+            "regeneration:1.0:1", " speed:0.5:0 ", "minecraft:haste:1.0:0", "a::1", ":1:2", "a:1:2:", "a:1:2::",
+            "a:1: 2", "a:1 :2", "a:1", "a:x:1", "a:1:x", "", " ", ":", "::", "a:1:2: :", "a:1:2 :"};
+
+    // Mostly well-formed lines with some broken parts and separators mixed in
+    private static String randomEntry(Random random) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(pick(random, TARGETS)).append('|').append(pick(random, INTS));
+        sb.append('|').append(pick(random, FLOATS)).append('|').append(pick(random, FLOATS));
+        int effects = random.nextInt(4);
+        for (int i = 0; i < effects; i++) sb.append('|').append(pick(random, EFFECTS));
+        int trailing = random.nextInt(6) == 0 ? 1 + random.nextInt(2) : 0;
+        sb.append("|".repeat(trailing));
+        if (random.nextInt(10) == 0) { // Drop a separator
+            int at = sb.indexOf("|");
+            if (at >= 0) sb.deleteCharAt(at);
+        }
+        return sb.toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,51 @@
+package zyon900.solneo.config;
+
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The split-based foodProperties parser FoodPropertiesParser replaced, kept as the reference for equivalence tests
+ * and benchmarks. Logging is dropped, everything else is as it was.
+ */
+final class LegacyFoodParser {
+
+    private LegacyFoodParser() {}
+
+    static Map<ResourceLocation, Config.FoodConfig> parse(List<? extends String> list) {
+        Map<ResourceLocation, Config.FoodConfig> map = new HashMap<>();
+        if (list == null) return map;
+
+        for (String entry : list) {
+            try {
+                String[] parts = entry.split("\\|");
+                if (parts.length >= 4) {
+                    ResourceLocation itemId = ResourceLocation.tryParse(parts[0].trim());
+                    int duration = Integer.parseInt(parts[1].trim());
+                    float hearts = Float.parseFloat(parts[2].trim());
+                    float regen = Float.parseFloat(parts[3].trim());
+
+                    List<Config.MobEffectConfig> effects = new ArrayList<>();
+                    if (parts.length > 4) {
+                        for (int i = 4; i < parts.length; i++) {
+                            String[] effectParts = parts[i].trim().split(":");
+                            if (effectParts.length == 3) {
+                                effects.add(new Config.MobEffectConfig(effectParts[0], Float.parseFloat(effectParts[1]), Integer.parseInt(effectParts[2])));
+                            }
+                        }
+                    }
+
+                    if (itemId != null) {
+                        map.put(itemId, new Config.FoodConfig(itemId, duration, hearts, regen, effects));
+                    }
+                }
+            } catch (Exception e) {
+                // Entry skipped
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,96 @@
+package zyon900.solneo.data;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes on the wire for STREAM_CODEC against the NBT compound the entity data serializer used to send
+ * (same keys as ValheimFoodData.save, written with FriendlyByteBuf.writeNbt like TRUSTED_COMPOUND_TAG).
+ */
+class FoodDataCodecSizeTest {
+
+    // Raw ids and item names of a typical stomach; modded ids are past 127, so their varints take two bytes
+    private static final int[] FOOD_IDS = {912, 1044, 1187, 1230, 1301, 1345, 1402, 1466, 1530, 1599};
+    private static final String[] FOOD_NAMES = {
+            "minecraft:cooked_beef", "minecraft:baked_potato", "farmersdelight:beef_stew", "minecraft:bread",
+            "minecraft:cooked_salmon", "farmersdelight:fried_rice", "minecraft:pumpkin_pie", "minecraft:cookie",
+            "farmersdelight:apple_pie_slice", "minecraft:golden_carrot"};
+    private static final int DRINK_ID = 1093;
+    private static final String DRINK_NAME = "minecraft:honey_bottle";
+
+    @Test
+    void emptyStomach() {
+        compare("empty", 3, false, 0);
+    }
+
+    @Test
+    void threeFoodsAndADrink() {
+        int binary = compare("3 foods + drink", 3, true, 3);
+        assertEquals(19, binary); // version, max slots, drink id + ticks, count, then id + ticks per food
+    }
+
+    @Test
+    void tenFoodsAndADrink() {
+        compare("10 foods + drink", 10, true, 10);
+    }
+
+    @Test
+    void encodedSizeMatchesWrite() {
+        for (int foods = 0; foods <= 10; foods++) {
+            ValheimFoodData data = stomach(10, foods % 2 == 0, foods);
+            assertEquals(binarySize(data), data.encodedSize(), foods + " foods");
+        }
+    }
+
+    // --- Helpers ---
+
+    private static int compare(String name, int maxSlots, boolean drink, int foods) {
+        ValheimFoodData data = stomach(maxSlots, drink, foods);
+        int binary = binarySize(data);
+        int nbt = nbtSize(maxSlots, drink, foods);
+        assertTrue(binary * 4 < nbt, name + ": " + binary + " vs " + nbt);
+        return binary;
+    }
+
+    // Foods with 2400 to 6000 ticks left, the drink with 1800
+    private static ValheimFoodData stomach(int maxSlots, boolean drink, int foods) {
+        ValheimFoodData data = new ValheimFoodData(maxSlots);
+        data.beginMirrorUpdate(true, maxSlots, foods);
+        if (drink) data.setMirrorSlot(0, DRINK_ID, 1800);
+        for (int i = 0; i < foods; i++) data.setMirrorSlot(1 + i, FOOD_IDS[i], ticks(i));
+        data.endMirrorUpdate(foods);
+        return data;
+    }
+
+    private static int ticks(int slot) {
+        return 2400 + slot * 400;
+    }
+
+    private static int binarySize(ValheimFoodData data) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        data.write(buf);
+        return buf.readableBytes();
+    }
+
+    private static int nbtSize(int maxSlots, boolean drink, int foods) {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("MaxSlots", maxSlots);
+        for (int i = 0; i < foods; i++) {
+            tag.putString("ID" + i, FOOD_NAMES[i]);
+            tag.putInt("Ticks" + i, ticks(i));
+        }
+        tag.putInt("Count", foods);
+        if (drink) {
+            tag.putString("DrinkID", DRINK_NAME);
+            tag.putInt("DrinkTicks", 1800);
+        }
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeNbt(tag);
+        return buf.readableBytes();
+    }
+}
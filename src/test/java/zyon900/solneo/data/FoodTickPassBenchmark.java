@@ -0,0 +1,69 @@
+package zyon900.solneo.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * FoodTickSystem's first pass (FoodTickSystem.computeTotals) run serially and on the common fork-join pool, as
+ * parallelFoodTick does, over real ValheimFoodData with cached aggregates. Prints the cost per tick for each player
+ * count and the smallest count at which fork-join won, the value to pick for parallelFoodTickThreshold on that
+ * machine. Skipped unless run with -Dsolneo.benchmarks=true.
+ */
+class FoodTickPassBenchmark {
+
+    private static final int[] PLAYER_COUNTS = {16, 64, 256, 1024, 4096, 20000};
+    private static final int ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    @AfterEach
+    void clear() {
+        FoodTickSystem.clear();
+    }
+
+    @Test
+    void serialAgainstForkJoin() {
+        assumeTrue(Boolean.getBoolean("solneo.benchmarks"), "benchmarks disabled");
+        System.out.printf("food tick pass 1, %d cores, common pool parallelism %d%n",
+                Runtime.getRuntime().availableProcessors(), ForkJoinPool.getCommonPoolParallelism());
+
+        int crossover = -1;
+        for (int players : PLAYER_COUNTS) {
+            FoodTickSystem.clear();
+            for (int i = 0; i < players; i++) FoodTickSystem.addFoodDataOnly(stomach(i));
+
+            for (int i = 0; i < ITERATIONS; i++) { // Warm-up
+                FoodTickSystem.computeTotals(20f, false);
+                FoodTickSystem.computeTotals(20f, true);
+            }
+            long serialBest = Long.MAX_VALUE;
+            long parallelBest = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) FoodTickSystem.computeTotals(20f, false);
+                serialBest = Math.min(serialBest, (System.nanoTime() - start) / ITERATIONS);
+
+                start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) FoodTickSystem.computeTotals(20f, true);
+                parallelBest = Math.min(parallelBest, (System.nanoTime() - start) / ITERATIONS);
+            }
+            if (crossover < 0 && parallelBest < serialBest) crossover = players;
+            System.out.printf("%6d players: serial %7d ns/tick, fork-join %7d ns/tick%n", players, serialBest, parallelBest);
+        }
+        System.out.println(crossover > 0 ? "fork-join first wins at " + crossover + " players" : "fork-join never won");
+    }
+
+    // One to three foods and sometimes a drink, as mirrored from a server
+    private static ValheimFoodData stomach(int seed) {
+        int foods = 1 + seed % 3;
+        ValheimFoodData data = new ValheimFoodData(3);
+        data.beginMirrorUpdate(seed % 2 == 0, 3, foods);
+        if (seed % 2 == 0) data.setMirrorSlot(0, 100, 1800);
+        for (int i = 0; i < foods; i++) data.setMirrorSlot(1 + i, 1 + i, 2400 + i * 600);
+        data.endMirrorUpdate(foods);
+        return data;
+    }
+}
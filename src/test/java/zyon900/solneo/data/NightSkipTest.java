@@ -0,0 +1,343 @@
+package zyon900.solneo.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The lazy night skip path (clock log + applyNightSkips on the next read) against the old eager rule, which walked
+ * every player on each skip and set each active food to max(1200, left - skipped).
+ */
+class NightSkipTest {
+
+    private static final int FLOOR = 1200;
+    private static final int DRINK_ID = 100;
+
+    // --- Explicit Cases ---
+
+    @Test
+    void skipKeepsAtLeastAMinute() {
+        TestClock clock = new TestClock();
+        ValheimFoodData data = mirror(clock, -1, 3000, 800, 10000);
+
+        clock.skip(5000);
+        data.syncClock(clock.clock);
+
+        // 3000 - 5000 and 800 are raised to the floor, 10000 - 5000 keeps its own time
+        assertArrayEquals(new int[] {FLOOR, FLOOR, 5000}, foodTicks(data));
+    }
+
+    @Test
+    void floorIsMeasuredFromTheEndOfTheSkip() {
+        TestClock clock = new TestClock();
+        ValheimFoodData data = mirror(clock, -1, 2000 + FLOOR, 2000 + FLOOR + 1);
+
+        clock.skip(2000);
+        data.syncClock(clock.clock);
+
+        // Exactly at the floor stays put, one past it loses the full skip
+        assertArrayEquals(new int[] {FLOOR, FLOOR + 1}, foodTicks(data));
+    }
+
+    @Test
+    void expiredFoodIsNotRevived() {
+        TestClock clock = new TestClock();
+        ValheimFoodData data = mirror(clock, -1, 500, 4000);
+
+        clock.advance(500); // First food runs out exactly now
+        clock.skip(1000);
+        data.syncClock(clock.clock);
+
+        assertArrayEquals(new int[] {0, 2500}, foodTicks(data));
+    }
+
+    @Test
+    void drinkFollowsTheSameRule() {
+        TestClock clock = new TestClock();
+        ValheimFoodData data = mirror(clock, 2000, 9000);
+
+        clock.skip(6000);
+        data.syncClock(clock.clock);
+
+        assertEquals(FLOOR, data.getDrinkTicksLeft());
+        assertArrayEquals(new int[] {3000}, foodTicks(data));
+    }
+
+    @Test
+    void multipleSkipsBetweenReadsApplyInOrder() {
+        TestClock clock = new TestClock();
+        ValheimFoodData data = mirror(clock, -1, 6000, 20000, 30000);
+        Eager eager = new Eager(-1, 6000, 20000, 30000);
+
+        clock.skip(4000);
+        eager.skip(4000);
+        clock.advance(300);
+        eager.advance(300);
+        clock.skip(12000);
+        eager.skip(12000);
+        clock.advance(900);
+        eager.advance(900);
+        clock.skip(7000);
+        eager.skip(7000);
+        data.syncClock(clock.clock); // One read after three skips
+
+        assertArrayEquals(eager.foods(), foodTicks(data));
+        // 6000 -> 2000 -> floor 1200 -> 900 later 300 -> floor 1200 again
+        assertEquals(FLOOR, foodTicks(data)[0]);
+    }
+
+    @Test
+    void readingBetweenSkipsGivesTheSameResult() {
+        TestClock clock = new TestClock();
+        ValheimFoodData everyTime = mirror(clock, 15000, 6000, 20000, 30000);
+        ValheimFoodData once = mirror(clock, 15000, 6000, 20000, 30000);
+
+        for (int i = 0; i < 5; i++) {
+            clock.advance(700);
+            clock.skip(3000 + i * 1000);
+            everyTime.syncClock(clock.clock);
+        }
+        everyTime.syncClock(clock.clock);
+        once.syncClock(clock.clock);
+
+        assertArrayEquals(foodTicks(everyTime), foodTicks(once));
+        assertEquals(everyTime.getDrinkTicksLeft(), once.getDrinkTicksLeft());
+    }
+
+    // --- Moving Between Levels ---
+
+    @Test
+    void skipsBeforeArrivingDoNotApply() {
+        TestClock overworld = new TestClock();
+        TestClock nether = new TestClock();
+        ValheimFoodData data = mirror(overworld, -1, 9000);
+
+        nether.skip(5000); // Happened while the player was elsewhere
+        data.syncClock(nether.clock);
+
+        assertArrayEquals(new int[] {9000}, foodTicks(data));
+    }
+
+    @Test
+    void pendingSkipsApplyBeforeLeaving() {
+        TestClock overworld = new TestClock();
+        TestClock nether = new TestClock();
+        ValheimFoodData data = mirror(overworld, -1, 9000);
+
+        overworld.skip(5000); // Not read yet when the player changes level
+        data.syncClock(nether.clock);
+        overworld.skip(2000); // After leaving, must not apply
+        nether.advance(1000);
+        data.syncClock(nether.clock);
+
+        assertArrayEquals(new int[] {3000}, foodTicks(data));
+    }
+
+    @Test
+    void rebasedDataPicksUpLaterSkips() {
+        TestClock overworld = new TestClock();
+        TestClock nether = new TestClock();
+        overworld.advance(50000);
+        nether.advance(50000);
+        nether.skip(24000); // Clocks now disagree by the skipped time
+        ValheimFoodData data = mirror(overworld, -1, 9000);
+
+        data.syncClock(nether.clock);
+        nether.skip(4000);
+        data.syncClock(nether.clock);
+
+        assertArrayEquals(new int[] {5000}, foodTicks(data));
+    }
+
+    // --- Trimming The Log ---
+
+    @Test
+    void appliedSkipsAreDropped() {
+        TestClock clock = new TestClock();
+        ValheimFoodData reader = mirror(clock, -1, 30000);
+        ValheimFoodData behind = mirror(clock, -1, 30000);
+
+        clock.skip(2000);
+        clock.skip(3000);
+        reader.syncClock(clock.clock);
+        clock.clock.dropAppliedSkips(List.of(reader, behind));
+        assertEquals(2, clock.clock.storedSkips()); // behind still needs both
+
+        behind.syncClock(clock.clock);
+        clock.clock.dropAppliedSkips(List.of(reader, behind));
+        assertEquals(0, clock.clock.storedSkips());
+
+        clock.skip(4000);
+        reader.syncClock(clock.clock);
+        behind.syncClock(clock.clock);
+        assertArrayEquals(new int[] {21000}, foodTicks(reader));
+        assertArrayEquals(foodTicks(reader), foodTicks(behind));
+    }
+
+    @Test
+    void emptyDataDoesNotHoldTheLog() {
+        TestClock clock = new TestClock();
+        ValheimFoodData empty = mirror(clock, -1);
+
+        clock.skip(2000);
+        clock.clock.dropAppliedSkips(List.of(empty));
+        assertEquals(0, clock.clock.storedSkips());
+    }
+
+    @Test
+    void trimmingMatchesEagerLoop() {
+        Random random = new Random(13L);
+        for (int run = 0; run < 100; run++) {
+            TestClock clock = new TestClock();
+            ValheimFoodData[] data = new ValheimFoodData[3];
+            Eager[] eager = new Eager[data.length];
+            for (int p = 0; p < data.length; p++) {
+                int food = 1 + random.nextInt(40000);
+                data[p] = mirror(clock, -1, food);
+                eager[p] = new Eager(-1, food);
+            }
+
+            for (int step = 0; step < 60; step++) {
+                int ticks = 1 + random.nextInt(6000);
+                if (random.nextBoolean()) {
+                    clock.advance(ticks);
+                    for (Eager e : eager) e.advance(ticks);
+                } else {
+                    clock.clock.dropAppliedSkips(List.of(data)); // As skip() does with the level's players
+                    clock.skip(ticks);
+                    for (Eager e : eager) e.skip(ticks);
+                }
+                int p = random.nextInt(data.length); // Players are read at different times
+                data[p].syncClock(clock.clock);
+                assertArrayEquals(eager[p].foods(), foodTicks(data[p]), "run " + run + " step " + step);
+            }
+            for (int p = 0; p < data.length; p++) {
+                data[p].syncClock(clock.clock);
+                assertArrayEquals(eager[p].foods(), foodTicks(data[p]), "run " + run);
+            }
+        }
+    }
+
+    // --- Against The Eager Loop ---
+
+    @Test
+    void randomHistoryMatchesEagerLoop() {
+        Random random = new Random(20250101L);
+        for (int run = 0; run < 200; run++) {
+            TestClock[] clocks = {new TestClock(), new TestClock(), new TestClock()};
+            int foods = 1 + random.nextInt(5);
+            int[] initial = new int[foods];
+            for (int i = 0; i < foods; i++) initial[i] = 1 + random.nextInt(40000);
+            int drink = random.nextBoolean() ? 1 + random.nextInt(40000) : -1;
+
+            int on = 0;
+            ValheimFoodData data = mirror(clocks[on], drink, initial);
+            Eager eager = new Eager(drink, initial);
+
+            for (int step = 0; step < 60; step++) {
+                switch (random.nextInt(4)) {
+                    case 0 -> { // Time passes on every level
+                        int ticks = random.nextInt(3000);
+                        for (TestClock clock : clocks) clock.advance(ticks);
+                        eager.advance(ticks);
+                    }
+                    case 1 -> { // Someone sleeps in some level
+                        int level = random.nextInt(clocks.length);
+                        int ticks = 1 + random.nextInt(12000);
+                        clocks[level].skip(ticks);
+                        if (level == on) eager.skip(ticks);
+                    }
+                    case 2 -> { // Player changes level
+                        on = random.nextInt(clocks.length);
+                        data.syncClock(clocks[on].clock);
+                    }
+                    default -> { // Data is read
+                        data.syncClock(clocks[on].clock);
+                        assertArrayEquals(eager.foods(), foodTicks(data), "run " + run + " step " + step);
+                        assertEquals(eager.drink(), data.getDrinkTicksLeft(), "run " + run + " step " + step);
+                    }
+                }
+            }
+            data.syncClock(clocks[on].clock);
+            assertArrayEquals(eager.foods(), foodTicks(data), "run " + run);
+            assertEquals(eager.drink(), data.getDrinkTicksLeft(), "run " + run);
+        }
+    }
+
+    // --- Helpers ---
+
+    // Food data holding the given remaining ticks, attached to the clock. drink < 0 means no drink.
+    private static ValheimFoodData mirror(TestClock clock, int drink, int... foods) {
+        int[] sorted = foods.clone();
+        Arrays.sort(sorted);
+        ValheimFoodData data = new ValheimFoodData(sorted.length);
+        data.beginMirrorUpdate(true, sorted.length, sorted.length);
+        if (drink >= 0) data.setMirrorSlot(0, DRINK_ID, drink);
+        for (int i = 0; i < sorted.length; i++) data.setMirrorSlot(1 + i, 1 + i, sorted[i]);
+        data.endMirrorUpdate(sorted.length);
+        data.syncClock(clock.clock); // Mirror expiries are relative to time 0, so this rebases them
+        return data;
+    }
+
+    private static int[] foodTicks(ValheimFoodData data) {
+        int[] ticks = new int[data.getFoodCount()];
+        for (int i = 0; i < ticks.length; i++) ticks[i] = data.getFoodTicksLeft(i);
+        Arrays.sort(ticks); // Floors can tie or reorder foods
+        return ticks;
+    }
+
+    private static final class TestClock {
+        private long gameTime = 0L;
+        final FoodClock clock = new FoodClock(null, () -> gameTime);
+
+        void advance(long ticks) {
+            gameTime += ticks;
+        }
+
+        void skip(long ticks) {
+            clock.skip(ticks);
+        }
+    }
+
+    // The old per-player loop: remaining ticks, counted down every tick and floored on each skip
+    private static final class Eager {
+        private final long[] foods;
+        private long drink;
+
+        Eager(int drink, int... foods) {
+            this.foods = new long[foods.length];
+            for (int i = 0; i < foods.length; i++) this.foods[i] = foods[i];
+            this.drink = drink >= 0 ? drink : 0;
+        }
+
+        void advance(long ticks) {
+            for (int i = 0; i < foods.length; i++) foods[i] = Math.max(0, foods[i] - ticks);
+            drink = Math.max(0, drink - ticks);
+        }
+
+        void skip(long ticks) {
+            for (int i = 0; i < foods.length; i++) foods[i] = skipped(foods[i], ticks);
+            drink = skipped(drink, ticks);
+        }
+
+        private static long skipped(long left, long ticks) {
+            return left > 0 ? Math.max(FLOOR, left - ticks) : left;
+        }
+
+        int[] foods() {
+            int[] ticks = new int[foods.length];
+            for (int i = 0; i < foods.length; i++) ticks[i] = (int) foods[i];
+            Arrays.sort(ticks);
+            return ticks;
+        }
+
+        int drink() {
+            return (int) drink;
+        }
+    }
+}
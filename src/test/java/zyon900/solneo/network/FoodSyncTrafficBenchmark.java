@@ -0,0 +1,138 @@
+package zyon900.solneo.network;
+
+import org.junit.jupiter.api.Test;
+import zyon900.solneo.data.ValheimFoodData;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes sent to one player's connection over a scripted hour of play: a full FoodSyncPayload on every change, as
+ * the owner sync did before FoodDeltaState, against the delta stream. Both send at the same ticks, and periodic
+ * resyncs are full in both. Run once with the default drain rates, where only eating, expiry, night skips and
+ * resyncs send anything, and once with activity drain, which adds an update on every activity change.
+ * Skipped unless run with -Dsolneo.benchmarks=true.
+ */
+class FoodSyncTrafficBenchmark {
+
+    private static final int SESSION_TICKS = 72_000; // One hour
+    private static final int RESYNC_INTERVAL = 1200; // foodResyncInterval default
+    private static final int MAX_SLOTS = 3;
+    private static final int NIGHT_SKIP_FLOOR_TICKS = 1200;
+    private static final int ENTITY_ID = 4821;
+    // Raw ids in the modded range, durations as in the built-in defaults
+    private static final int[] FOOD_IDS = {912, 1044, 1187, 1230, 1301};
+    private static final int[] FOOD_TICKS = {1800, 1200, 1400, 1400, 1800};
+    private static final int DRINK_ID = 1093;
+    private static final int DRINK_TICKS = 600;
+
+    @Test
+    void fullAgainstDelta() {
+        assumeTrue(Boolean.getBoolean("solneo.benchmarks"), "benchmarks disabled");
+        run("default drain", new float[] {1f, 1f, 1f, 1f});
+        run("activity drain", new float[] {1.5f, 2f, 2f, 0.5f}); // Sprinting, swimming, fighting, idle
+    }
+
+    private static void run(String name, float[] drain) {
+        Session session = new Session(drain);
+        FoodDeltaState delta = new FoodDeltaState();
+        long fullBytes = 0;
+        long deltaBytes = 0;
+        int messages = 0;
+        for (int t = 0; t < SESSION_TICKS; t++) {
+            boolean changed = session.step(t);
+            boolean resync = t % RESYNC_INTERVAL == RESYNC_INTERVAL - 1 && !session.isEmpty();
+            if (!changed && !resync) continue;
+
+            ValheimFoodData data = session.snapshot(t);
+            if (resync) delta.requestFull();
+            FoodDeltaPayload payload = delta.build(data, t);
+            if (payload == null) continue; // Nothing the client can see changed
+            fullBytes += new FoodSyncPayload(ENTITY_ID, t, data).encodedSize();
+            deltaBytes += payload.encodedSize();
+            messages++;
+        }
+        System.out.printf("%s, %d messages in one hour: full sync %d bytes, delta sync %d bytes (%.0f%%)%n",
+                name, messages, fullBytes, deltaBytes, 100.0 * deltaBytes / fullBytes);
+        assertTrue(deltaBytes < fullBytes, name);
+    }
+
+    // One player's stomach over the session. Remaining ticks count down by one per tick, faster or slower with the
+    // drain rate of the current activity.
+    private static final class Session {
+        private final float[] drain;
+        private final List<int[]> foods = new ArrayList<>(); // {raw id, remaining ticks}, soonest first
+        private int drinkLeft = 0;
+        private float rate = 1f;
+        private int nextFood = 0;
+
+        Session(float[] drain) {
+            this.drain = drain;
+        }
+
+        boolean isEmpty() {
+            return foods.isEmpty() && drinkLeft == 0;
+        }
+
+        // Advances to tick t; returns true if the client's view changed beyond the countdown
+        boolean step(int t) {
+            boolean changed = false;
+            float newRate = rateAt(t);
+            if (newRate != rate) {
+                for (int[] food : foods) food[1] = Math.max(1, Math.round(food[1] * rate / newRate));
+                if (drinkLeft > 0) drinkLeft = Math.max(1, Math.round(drinkLeft * rate / newRate));
+                rate = newRate;
+                changed = !isEmpty();
+            }
+
+            for (int[] food : foods) food[1]--;
+            changed |= foods.removeIf(food -> food[1] <= 0);
+            if (drinkLeft > 0 && --drinkLeft == 0) changed = true;
+
+            if (t % 24_000 == 18_000) { // Everyone sleeps through the night
+                for (int[] food : foods) food[1] = Math.max(NIGHT_SKIP_FLOOR_TICKS, food[1] - 10_000);
+                if (drinkLeft > 0) drinkLeft = Math.max(NIGHT_SKIP_FLOOR_TICKS, drinkLeft - 10_000);
+                changed |= !isEmpty();
+            }
+
+            if (t % 200 == 0) { // Eats whenever a slot is free, drinks when the drink ran out
+                if (foods.size() < MAX_SLOTS) {
+                    int i = nextFood++ % FOOD_IDS.length;
+                    foods.add(new int[] {FOOD_IDS[i], Math.round(FOOD_TICKS[i] / rate)});
+                    foods.sort((a, b) -> Integer.compare(a[1], b[1]));
+                    changed = true;
+                }
+                if (drinkLeft == 0) {
+                    drinkLeft = Math.round(DRINK_TICKS / rate);
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        // A cycle of 40 seconds walking, 15 sprinting, 10 fighting, 15 walking, 10 swimming and 30 idle
+        private float rateAt(int t) {
+            int phase = t % 2400;
+            if (phase < 800) return 1f;
+            if (phase < 1100) return drain[0];
+            if (phase < 1300) return drain[2];
+            if (phase < 1600) return 1f;
+            if (phase < 1800) return drain[1];
+            return drain[3];
+        }
+
+        // The state as the server would send it at tick t
+        ValheimFoodData snapshot(int t) {
+            ValheimFoodData data = new ValheimFoodData();
+            data.beginMirrorUpdate(true, MAX_SLOTS, foods.size());
+            if (drinkLeft > 0) data.setMirrorSlot(0, DRINK_ID, t + drinkLeft);
+            for (int i = 0; i < foods.size(); i++) data.setMirrorSlot(1 + i, foods.get(i)[0], t + foods.get(i)[1]);
+            data.endMirrorUpdate(foods.size());
+            data.advanceTo(t);
+            return data;
+        }
+    }
+}